@@ -0,0 +1,87 @@
+package com.example.peakplatesapp;
+
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode latency of {@link ImageDecoder} per format and source size, at the card width.
+ * JPEG, PNG, GIF and BMP go through JavaFX; TIFF takes the ImageIO fallback.
+ * JavaFX decodes without the toolkit being started, so this also runs headless.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageDecoderBenchmark {
+    private static final int CARD_WIDTH = 350;
+
+    @Param({"jpeg", "png", "gif", "bmp", "tiff"})
+    public String format;
+
+    // Width of the encoded source; height is 3/4 of it
+    @Param({"800", "2048", "4000"})
+    public int sourceWidth;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        bytes = encode(photoLike(sourceWidth, sourceWidth * 3 / 4), format);
+        if (ImageDecoder.decode(bytes, CARD_WIDTH) == null) {
+            throw new IllegalStateException("Cannot decode the " + format + " sample");
+        }
+    }
+
+    @Benchmark
+    public Image decodeAtCardWidth() {
+        return ImageDecoder.decode(bytes, CARD_WIDTH);
+    }
+
+    // Gradient with noise and shapes, so the encoders compress about as well as they do on photos
+    private static BufferedImage photoLike(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(200, 120, 60), width, height, new Color(40, 90, 160)));
+        g.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 128));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 20 + random.nextInt(width / 8), 20 + random.nextInt(height / 8));
+        }
+        g.dispose();
+        for (int i = 0; i < width * height / 20; i++) {
+            image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt(0x1000000));
+        }
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, format, out)) {
+            throw new IllegalStateException("No ImageIO writer for " + format);
+        }
+        return out.toByteArray();
+    }
+}
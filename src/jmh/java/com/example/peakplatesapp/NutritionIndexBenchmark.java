@@ -0,0 +1,96 @@
+package com.example.peakplatesapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro queries over synthetic recipes: {@link NutritionIndex} range and nearest-profile lookups
+ * against checking every recipe's getters. The sorted columns are built once in setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class NutritionIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int recipes;
+
+    // A selective and a broad range over two macros
+    @Param({"cal<=300 protein>=40", "cal<=600 carbs>=20"})
+    public String rangeQuery;
+
+    private NutritionIndex index;
+    private List<RecipeSummary> summaries;
+    private NutritionIndex.Query range;
+    private NutritionIndex.Query target;
+    private List<RecipeSummary> rangeMatches;
+
+    @Setup
+    public void setUp() {
+        index = new NutritionIndex();
+        summaries = new ArrayList<>(recipes);
+        Random random = new Random(42);
+        for (int i = 0; i < recipes; i++) {
+            RecipeSummary summary = new RecipeSummary();
+            summary.setId("r" + i);
+            // One in ten recipes never entered nutrition data
+            if (random.nextInt(10) > 0) {
+                summary.setProtein(random.nextInt(80));
+                summary.setCarbs(random.nextInt(120));
+                summary.setFats(random.nextInt(60));
+                summary.setCalories(summary.getProtein() * 4 + summary.getCarbs() * 4 + summary.getFats() * 9);
+            }
+            summaries.add(summary);
+        }
+        index.addAll(summaries);
+        range = NutritionIndex.parse(rangeQuery);
+        target = NutritionIndex.parse(rangeQuery + " protein~45 cal~280");
+        rangeMatches = index.select(summaries, range);
+    }
+
+    @Benchmark
+    public BitSet indexRange() {
+        return index.range(range);
+    }
+
+    @Benchmark
+    public List<RecipeSummary> linearRange() {
+        int[] min = range.min();
+        int[] max = range.max();
+        List<RecipeSummary> result = new ArrayList<>();
+        for (RecipeSummary summary : summaries) {
+            int[] macros = {summary.getCalories(), summary.getProtein(), summary.getCarbs(), summary.getFats()};
+            if (macros[0] == 0 && macros[1] == 0 && macros[2] == 0 && macros[3] == 0) continue;
+            boolean match = true;
+            for (int macro = 0; macro < macros.length && match; macro++) {
+                match = macros[macro] >= min[macro] && macros[macro] <= max[macro];
+            }
+            if (match) result.add(summary);
+        }
+        return result;
+    }
+
+    // Closest profile first among the range matches, as the dashboard orders a filtered search
+    @Benchmark
+    public List<RecipeSummary> nearestInRange() {
+        return index.nearest(rangeMatches, target);
+    }
+}
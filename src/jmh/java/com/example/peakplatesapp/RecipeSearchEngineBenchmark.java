@@ -0,0 +1,97 @@
+package com.example.peakplatesapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipe search over synthetic recipes: ranked top-k from {@link RecipeSearchEngine} against the
+ * lower-case title substring scan the recipe screens used to run on every keystroke.
+ * The engine also searches ingredients and steps, which the scan never looked at.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RecipeSearchEngineBenchmark {
+    private static final int TOP_K = 20;
+    private static final String[] DISHES = {"soup", "salad", "curry", "pasta", "stew", "cake", "bread", "tacos", "risotto", "bowl"};
+    private static final String[] INGREDIENTS = {
+            "chicken", "beef", "tofu", "lentils", "rice", "tomatoes", "onions", "garlic", "spinach", "potatoes",
+            "chocolate", "flour", "eggs", "butter", "lemon", "ginger", "coconut", "beans", "mushrooms", "cheese"};
+    private static final String[] STYLES = {"spicy", "creamy", "quick", "roasted", "smoky", "vegan", "classic", "crispy"};
+    private static final String[] VERBS = {"chop", "stir", "simmer", "bake", "whisk", "fold", "roast", "season", "serve", "slice"};
+    private static final String[] TAGS = {"Vegan", "Vegetarian", "Gluten-Free", "Quick", "Dessert", "High Protein", "Breakfast"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int recipes;
+
+    // One term, two terms, a trailing prefix as typed, and a term in ingredients/steps only
+    @Param({"curry", "spicy chicken", "chocolate ca", "simmering"})
+    public String query;
+
+    private RecipeSearchEngine engine;
+    private List<RecipeSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        engine = new RecipeSearchEngine();
+        summaries = new ArrayList<>(recipes);
+        Random random = new Random(42);
+        for (int i = 0; i < recipes; i++) {
+            RecipeSummary summary = new RecipeSummary();
+            summary.setId("r" + i);
+            summary.setUsername("cook" + random.nextInt(5000));
+            summary.setTitle(pick(random, STYLES) + " " + pick(random, INGREDIENTS) + " " + pick(random, DISHES));
+            summary.setTags(List.of(pick(random, TAGS), pick(random, TAGS)));
+            summaries.add(summary);
+            engine.add(summary);
+            engine.updateText(summary.getId(), words(random, INGREDIENTS, 8), words(random, VERBS, 30));
+        }
+    }
+
+    @Benchmark
+    public List<String> engineTopK() {
+        return engine.search(query, TOP_K);
+    }
+
+    @Benchmark
+    public List<RecipeSummary> titleScan() {
+        String q = query.toLowerCase();
+        List<RecipeSummary> result = new ArrayList<>();
+        for (RecipeSummary summary : summaries) {
+            if (summary.getTitle() != null && summary.getTitle().toLowerCase().contains(q)) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            text.append(pick(random, vocabulary));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.peakplatesapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Friend search over synthetic usernames: {@link UsernameIndex#search} against the lower-case
+ * contains scan the Friends screen used to run over every user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UsernameIndexBenchmark {
+    private static final int LIMIT = 50;
+    private static final String[] SYLLABLES = {
+            "an", "be", "ca", "da", "el", "fi", "go", "ha", "is", "jo", "ka", "li", "ma", "no", "ol",
+            "pe", "ri", "sa", "te", "ul", "va", "wi", "xa", "yo", "ze", "mar", "jan", "léa", "chef", "cook"};
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    // Short prefix, common prefix, infix and a query with no match
+    @Param({"ma", "mari", "chef", "qqq"})
+    public String query;
+
+    private UsernameIndex index;
+    private List<String> usernames;
+
+    @Setup
+    public void setUp() {
+        index = new UsernameIndex();
+        usernames = new ArrayList<>(users);
+        Random random = new Random(42);
+        for (int i = 0; i < users; i++) {
+            StringBuilder name = new StringBuilder();
+            int parts = 2 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            if (random.nextBoolean()) name.append(random.nextInt(1000));
+            String username = name.toString();
+            usernames.add(username);
+            index.put("uid" + i, username);
+        }
+    }
+
+    @Benchmark
+    public List<UsernameIndex.Match> indexSearch() {
+        return index.search(query, LIMIT, null);
+    }
+
+    @Benchmark
+    public List<String> linearScan() {
+        String q = query.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>();
+        for (String username : usernames) {
+            if (username.toLowerCase(Locale.ROOT).contains(q)) {
+                result.add(username);
+                if (result.size() == LIMIT) break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.peakplatesapp;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Sign-in accounts that back the users collection: Firebase Auth by default, or the users
+ * repository itself with the in-memory backend, where there is no separate sign-in system.
+ */
+public interface AccountAuth {
+
+    // Creates the sign-in account and returns its uid
+    String createUser(String email, String password, String displayName) throws ExecutionException, InterruptedException;
+
+    // Uid of the sign-in account for the email, or null when there is none. Starts the lookup without waiting for it
+    Future<String> lookupUid(String email);
+}
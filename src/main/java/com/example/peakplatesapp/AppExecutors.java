@@ -0,0 +1,55 @@
+package com.example.peakplatesapp;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared background thread pools, so screens stop spawning a new Thread per request.
+ * All threads are daemons and never keep the app alive after the window closes.
+ */
+public final class AppExecutors {
+    private static final ExecutorService IO = Executors.newFixedThreadPool(8, daemonFactory("peakplates-io"));
+    private static final ExecutorService COMPUTE = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), daemonFactory("peakplates-compute"));
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(daemonFactory("peakplates-timer"));
+
+    // Private constructor to prevent instantiation
+    private AppExecutors() {
+    }
+
+    /**
+     * Pool for blocking network and storage calls.
+     * @return the shared I/O executor
+     */
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    /**
+     * Pool for CPU-bound work such as image scaling and encoding.
+     * @return the shared compute executor
+     */
+    public static ExecutorService compute() {
+        return COMPUTE;
+    }
+
+    /**
+     * Timer for delayed work. Tasks must be short and hand anything blocking to {@link #io()}.
+     * @return the shared scheduler
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
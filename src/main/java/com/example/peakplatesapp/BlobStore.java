@@ -0,0 +1,16 @@
+package com.example.peakplatesapp;
+
+import java.io.IOException;
+
+/**
+ * Binary storage for recipe images. Recipe documents only keep the path.
+ */
+public interface BlobStore {
+
+    void put(String path, byte[] data, String contentType) throws IOException;
+
+    // Returns null when nothing is stored at the path
+    byte[] get(String path) throws IOException;
+
+    void delete(String path) throws IOException;
+}
@@ -0,0 +1,46 @@
+package com.example.peakplatesapp;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.Bucket;
+import com.google.cloud.storage.StorageException;
+
+import java.io.IOException;
+
+/**
+ * Stores blobs in the project's Cloud Storage bucket.
+ */
+public class CloudStorageBlobStore implements BlobStore {
+
+    private Bucket bucket() {
+        return FirestoreContext.getBucket();
+    }
+
+    @Override
+    public void put(String path, byte[] data, String contentType) throws IOException {
+        try {
+            bucket().create(path, data, contentType);
+        } catch (StorageException e) {
+            throw new IOException("Failed to upload " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] get(String path) throws IOException {
+        try {
+            Blob blob = bucket().get(path);
+            return blob != null ? blob.getContent() : null;
+        } catch (StorageException e) {
+            throw new IOException("Failed to download " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        try {
+            Blob blob = bucket().get(path);
+            if (blob != null) blob.delete();
+        } catch (StorageException e) {
+            throw new IOException("Failed to delete " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
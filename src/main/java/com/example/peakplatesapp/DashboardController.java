@@ -4,8 +4,8 @@ import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
-import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.CheckBox;
 import javafx.scene.image.Image;
@@ -13,29 +13,32 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.FlowPane;
-import javafx.geometry.Insets;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.DocumentSnapshot;
 
-import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.function.UnaryOperator;
 
 public class DashboardController {
 
     @FXML private Label welcomeLabel;
-    @FXML private VBox recipesContainer;
+    @FXML private ListView<RecipeSummary> recipesList;
+    @FXML private Label feedStatusLabel;
     @FXML private TextField searchField;
     @FXML private FlowPane filterTagsContainer;
+    @FXML private CheckBox matchAllTagsCheckBox;
 
     private MainApp mainApp;
     private String userId;
     private String username;
-    private List<Recipe> allRecipes = new ArrayList<>();
-    private Set<String> selectedTags = new HashSet<>();
+    private List<RecipeSummary> allRecipes = new ArrayList<>();
+    private final RecipeSearchEngine searchEngine = new RecipeSearchEngine();
+    private final NutritionIndex nutritionIndex = new NutritionIndex();
+    private TagFilterPanel filters;
+
+    // Recipes are fetched a page at a time as the user scrolls
+    private static final int PAGE_SIZE = 20;
+    private RecipeFeed feed;
+    private final Label placeholderLabel = new Label("Loading recipes...");
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -49,6 +52,16 @@ public class DashboardController {
         this.username = username;
     }
 
+    @FXML
+    public void initialize() {
+        filters = new TagFilterPanel(searchField, filterTagsContainer, matchAllTagsCheckBox, this::applyFilters);
+        // Cells are reused while scrolling; showing one of the last rows loads the next page
+        recipesList.setCellFactory(list -> new RecipeListCell(
+                this::showRecipeDetails, this::handleLike, this::handleFavorite, this::handleShare, this::loadMoreRecipes));
+        placeholderLabel.setStyle("-fx-text-fill: rgba(255,255,255,0.85); -fx-font-size: 16;");
+        recipesList.setPlaceholder(placeholderLabel);
+    }
+
     public void loadUserData() {
         if (userId == null) {
             System.err.println("User ID not set!");
@@ -56,15 +69,11 @@ public class DashboardController {
         }
 
         try {
-            DocumentSnapshot doc = FirestoreContext.getFirestore()
-                    .collection("users")
-                    .document(userId)
-                    .get()
-                    .get();
+            UserAccount account = Repositories.users().findById(userId);
 
-            if (doc.exists()) {
+            if (account != null) {
                 if (username == null) {
-                    username = doc.getString("username");
+                    username = account.getUsername();
                 }
                 if (username != null) {
                     welcomeLabel.setText("Welcome, " + username + "!");
@@ -77,243 +86,141 @@ public class DashboardController {
         }
     }
 
-    // LOAD RECIPES FROM FIRESTORE
+    // LOAD RECIPES FROM REPOSITORY (first page; later pages load on scroll)
     private void loadRecipes() {
-        recipesContainer.getChildren().clear();
-        Label loading = new Label("Loading recipes...");
-        recipesContainer.getChildren().add(loading);
-
-        new Thread(() -> {
-            try {
-                QuerySnapshot snapshots = FirestoreContext.getFirestore()
-                        .collection("recipes")
-                        .get()
-                        .get();
-
-                allRecipes.clear();
-                Set<String> allTags = new HashSet<>();
-                for (QueryDocumentSnapshot doc : snapshots.getDocuments()) {
-                    Recipe recipe = doc.toObject(Recipe.class);
-                    recipe.setId(doc.getId());
-                    allRecipes.add(recipe);
-                    if (recipe.getTags() != null) {
-                        allTags.addAll(recipe.getTags());
-                    }
-                }
-
-                Platform.runLater(() -> {
-                    // Populate filter tags
-                    populateFilterTags(new ArrayList<>(allTags));
-                    // Display all recipes
-                    displayRecipes(allRecipes);
-                });
+        // Start loading the liked/favorited ids so the first toggle does not wait
+        UserReactions.of(userId);
+        allRecipes.clear();
+        searchEngine.clear();
+        filters.clear();
+        nutritionIndex.clear();
+        feed = new RecipeFeed(Repositories.recipes()::findPage, PAGE_SIZE);
+        placeholderLabel.setText("Loading recipes...");
+        hideFeedStatus();
+        recipesList.getItems().clear();
+        loadMoreRecipes();
+    }
 
-            } catch (Exception e) {
-                e.printStackTrace();
-                Platform.runLater(() -> {
-                    recipesContainer.getChildren().clear();
-                    recipesContainer.getChildren().add(new Label("Error loading recipes."));
+    private void loadMoreRecipes() {
+        RecipeFeed currentFeed = feed;
+        if (currentFeed == null || !currentFeed.hasMore() || currentFeed.isLoading()) return;
+
+        if (!allRecipes.isEmpty()) showFeedStatus("Loading more recipes...");
+        currentFeed.loadNext(
+                page -> Platform.runLater(() -> {
+                    // Ignore pages from a feed that has since been reloaded
+                    if (currentFeed == feed) appendRecipes(page);
+                }),
+                error -> {
+                    error.printStackTrace();
+                    Platform.runLater(() -> {
+                        if (currentFeed != feed) return;
+                        if (allRecipes.isEmpty()) {
+                            placeholderLabel.setText("Error loading recipes.");
+                        } else {
+                            showFeedStatus("Error loading recipes.");
+                        }
+                    });
                 });
-            }
-        }).start();
     }
 
-    private void populateFilterTags(List<String> tags) {
-        filterTagsContainer.getChildren().clear();
-        for (String tag : tags) {
-            CheckBox tagCheckBox = new CheckBox(tag);
-            tagCheckBox.setStyle("-fx-font-size: 12;");
-            tagCheckBox.setOnAction(e -> {
-                if (tagCheckBox.isSelected()) {
-                    selectedTags.add(tag);
-                } else {
-                    selectedTags.remove(tag);
-                }
-                applyFilters();
-            });
-            filterTagsContainer.getChildren().add(tagCheckBox);
+    private void appendRecipes(List<RecipeSummary> page) {
+        hideFeedStatus();
+        allRecipes.addAll(page);
+        searchEngine.addAll(page, this::refreshSearch);
+        filters.addAll(page);
+        nutritionIndex.addAll(page);
+        placeholderLabel.setText("No recipes found.");
+
+        // While the viewport is not filled yet, the new last rows ask for the next page
+        if (filters.isFiltering()) {
+            applyFilters();
+        } else {
+            filters.updateCounts("", List.of());
+            recipesList.getItems().addAll(page);
         }
     }
 
+    private void showFeedStatus(String text) {
+        feedStatusLabel.setText(text);
+        feedStatusLabel.setVisible(true);
+        feedStatusLabel.setManaged(true);
+    }
+
+    private void hideFeedStatus() {
+        feedStatusLabel.setVisible(false);
+        feedStatusLabel.setManaged(false);
+    }
+
+    @FXML
+    private void handleRefresh() {
+        loadRecipes();
+    }
+
     @FXML
     private void handleSearch() {
         applyFilters();
     }
 
+    @FXML
+    private void handleMatchAllTags() {
+        applyFilters();
+    }
+
     @FXML
     private void handleClearSearch() {
-        searchField.clear();
-        selectedTags.clear();
-        for (javafx.scene.Node node : filterTagsContainer.getChildren()) {
-            if (node instanceof CheckBox) {
-                ((CheckBox) node).setSelected(false);
-            }
-        }
+        filters.reset();
         displayRecipes(allRecipes);
     }
 
-    private void applyFilters() {
-        String searchQuery = searchField.getText() != null ? searchField.getText().trim().toLowerCase() : "";
-        List<Recipe> filtered = new ArrayList<>();
-
-        for (Recipe recipe : allRecipes) {
-            // Check name match
-            boolean nameMatches = recipe.getTitle() != null && recipe.getTitle().toLowerCase().contains(searchQuery);
-
-            // Check tag matches
-            boolean tagsMatch = true;
-            if (!selectedTags.isEmpty()) {
-                tagsMatch = recipe.getTags() != null && recipe.getTags().stream().anyMatch(selectedTags::contains);
-            }
+    // Ingredients and steps are indexed after the page arrives; re-run an active search with them
+    private void refreshSearch() {
+        if (!filters.searchText().isBlank()) applyFilters();
+    }
 
-            // Include if name matches (when searching) or if tags match (when filtering)
-            if ((searchQuery.isEmpty() || nameMatches) && tagsMatch) {
-                filtered.add(recipe);
-            }
-        }
+    private void applyFilters() {
+        String text = filters.searchText();
+        // Macro terms such as cal<=500 or protein>=30 filter by nutrition; the rest is full-text search
+        NutritionIndex.Query nutrition = NutritionIndex.parse(text);
+        String searchQuery = nutrition.text();
+        // Ranked by relevance while searching, feed order otherwise
+        List<RecipeSummary> candidates = searchQuery.isBlank() ? allRecipes : searchEngine.search(searchQuery, allRecipes);
+        if (nutrition.hasRanges()) candidates = nutritionIndex.select(candidates, nutrition);
+        // Targets such as protein~40 put the closest macro profile first
+        if (nutrition.hasTarget()) candidates = nutritionIndex.nearest(candidates, nutrition);
+        // Any of the selected tags, or all of them when "Match all selected" is checked
+        List<RecipeSummary> filtered = filters.select(candidates);
+        filters.updateCounts(text, candidates);
 
         displayRecipes(filtered);
     }
 
-    private void displayRecipes(List<Recipe> recipes) {
-        recipesContainer.getChildren().clear();
-        if (recipes.isEmpty()) {
-            recipesContainer.getChildren().add(new Label("No recipes found."));
-        } else {
-            for (Recipe r : recipes) {
-                recipesContainer.getChildren().add(createRecipeCard(r));
-            }
-        }
-    }
-
-
-    // CREATES RECIPE CARD
-    private VBox createRecipeCard(Recipe recipe) {
-        VBox card = new VBox(10);
-        card.setPadding(new Insets(10));
-        card.setStyle("-fx-background-color: #ffffff; -fx-border-color: #cccccc; -fx-border-radius: 8; -fx-background-radius: 8;");
-
-        // Title
-        Label titleLabel = new Label(recipe.getTitle() != null ? recipe.getTitle() : "Untitled Recipe");
-        titleLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
-        card.getChildren().add(titleLabel);
-
-        // By: username
-        Label byLabel = new Label("By: " + (recipe.getUsername() != null ? recipe.getUsername() : "Unknown"));
-        byLabel.setStyle("-fx-font-size: 12; -fx-text-fill: #666;");
-        card.getChildren().add(byLabel);
-
-        // Tags (display under title)
-        if (recipe.getTags() != null && !recipe.getTags().isEmpty()) {
-            javafx.scene.layout.FlowPane tagsFlow = new javafx.scene.layout.FlowPane(8, 6);
-            for (String t : recipe.getTags()) {
-                Label tagLabel = new Label(t);
-                tagLabel.setStyle("-fx-background-color: #e0f2f1; -fx-padding: 4 8; -fx-border-radius: 4; -fx-background-radius: 4; -fx-font-size: 11;");
-                tagsFlow.getChildren().add(tagLabel);
-            }
-            card.getChildren().add(tagsFlow);
-        }
-
-        // Image
-        Image img = null;
-        if (recipe.getImageData() != null) {
-            try {
-                byte[] bytes = recipe.getImageData().toBytes();
-                if (bytes.length > 0) {
-                    img = createImageFromBytes(bytes);
-                }
-            } catch (Exception e) {
-                System.err.println("Image decode failed: " + e.getMessage());
-            }
-        }
-
-        if (img != null) {
-            ImageView imageView = new ImageView(img);
-            imageView.setFitWidth(350);
-            imageView.setPreserveRatio(true);
-            imageView.setStyle("-fx-cursor: hand;");
-            imageView.setOnMouseClicked(e -> showRecipeDetails(recipe));
-            card.getChildren().add(imageView);
-        }
-
-        // Actions: View / Like / Favorite / Share (labeled)
-        HBox actions = new HBox(10);
-
-        Button viewButton = new Button("📖 View");
-        viewButton.setOnAction(e -> showRecipeDetails(recipe));
-
-        Button likeButton = new Button("❤️ Like (" + recipe.getLikes() + ")");
-        likeButton.setOnAction(e -> handleLike(recipe));
-
-        Button favButton = new Button("⭐ Favorite (" + recipe.getFavorites() + ")");
-        favButton.setOnAction(e -> handleFavorite(recipe));
-
-        Button shareButton = new Button("📤 Share (" + recipe.getShares() + ")");
-        shareButton.setOnAction(e -> handleShare(recipe));
-
-        actions.getChildren().addAll(viewButton, likeButton, favButton, shareButton);
-        card.getChildren().add(actions);
-
-        return card;
+    private void displayRecipes(List<RecipeSummary> recipes) {
+        placeholderLabel.setText("No recipes found.");
+        recipesList.getItems().setAll(recipes);
     }
 
     // LIKE RECIPE
-    private void handleLike(Recipe recipe) {
-        try {
-            java.util.List<String> liked = recipe.getLikedByUsers();
-            if (liked == null) liked = new java.util.ArrayList<>();
-            if (!liked.contains(userId)) {
-                liked.add(userId);
-                recipe.setLikes(recipe.getLikes() + 1);
-            } else {
-                liked.remove(userId);
-                recipe.setLikes(Math.max(0, recipe.getLikes() - 1));
-            }
-
-            recipe.setLikedByUsers(liked);
-            FirestoreContext.getFirestore()
-                    .collection("recipes")
-                    .document(recipe.getId())
-                    .update("likes", recipe.getLikes(),
-                            "likedByUsers", liked)
-                    .get();
-
-            loadRecipes();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private void handleLike(RecipeSummary recipe) {
+        // Patches just this row right away; the write runs in the background and is undone if it fails
+        RecipeActions.toggleLike(userId, recipe, this::patchRecipe,
+                e -> showAlert("Error", "Failed to update like: " + e.getMessage()));
     }
 
     // FAVORITE RECIPE
-    private void handleFavorite(Recipe recipe) {
-        try {
-            java.util.List<String> favs = recipe.getFavoriteByUsers();
-            if (favs == null) favs = new java.util.ArrayList<>();
-            if (!favs.contains(userId)) {
-                favs.add(userId);
-                recipe.setFavorites(recipe.getFavorites() + 1);
-            } else {
-                favs.remove(userId);
-                recipe.setFavorites(Math.max(0, recipe.getFavorites() - 1));
-            }
-
-            recipe.setFavoriteByUsers(favs);
-            FirestoreContext.getFirestore()
-                    .collection("recipes")
-                    .document(recipe.getId())
-                    .update("favorites", recipe.getFavorites(),
-                            "favoriteByUsers", favs)
-                    .get();
-
-            loadRecipes();
+    private void handleFavorite(RecipeSummary recipe) {
+        RecipeActions.toggleFavorite(userId, recipe, this::patchRecipe,
+                e -> showAlert("Error", "Failed to update favorite: " + e.getMessage()));
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    // Applies a change to the recipe in the loaded list and the visible rows
+    private void patchRecipe(String recipeId, UnaryOperator<RecipeSummary> change) {
+        RecipeActions.patchById(allRecipes, recipeId, change);
+        RecipeActions.patchById(recipesList.getItems(), recipeId, change);
     }
 
     // SHARE RECIPE
-    private void handleShare(Recipe recipe) {
+    private void handleShare(RecipeSummary recipe) {
         try {
             if (mainApp != null && userId != null) {
                 mainApp.switchToShareRecipe(userId, recipe);
@@ -325,7 +232,12 @@ public class DashboardController {
     }
 
     // VIEW RECIPE DETAILS
-    private void showRecipeDetails(Recipe recipe) {
+    // Loads the full recipe (cached after the first open) and its image before showing the details dialog
+    private void showRecipeDetails(RecipeSummary summary) {
+        RecipeDetailsLoader.open(summary, this::showRecipeDetails, this::showAlert);
+    }
+
+    private void showRecipeDetails(Recipe recipe, Image image) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(recipe.getTitle() != null ? recipe.getTitle() : "Recipe Details");
         alert.setHeaderText(null);
@@ -340,19 +252,11 @@ public class DashboardController {
         content.getChildren().add(titleLabel);
 
         // Recipe image
-        if (recipe.getImageData() != null) {
-            try {
-                byte[] bytes = recipe.getImageData().toBytes();
-                if (bytes != null && bytes.length > 0) {
-                    Image img = createImageFromBytes(bytes);
-                    ImageView imageView = new ImageView(img);
-                    imageView.setFitWidth(380);
-                    imageView.setPreserveRatio(true);
-                    content.getChildren().add(imageView);
-                }
-            } catch (Exception e) {
-                System.err.println("Image decode failed for recipe " + recipe.getId() + ": " + e.getMessage());
-            }
+        if (image != null) {
+            ImageView imageView = new ImageView(image);
+            imageView.setFitWidth(380);
+            imageView.setPreserveRatio(true);
+            content.getChildren().add(imageView);
         }
 
         // Username
@@ -508,30 +412,6 @@ public class DashboardController {
         alert.showAndWait();
     }
 
-    // Helper: try to create a JavaFX Image from bytes; if direct decoding fails, write a temp file and load via URI
-    private Image createImageFromBytes(byte[] bytes) {
-        try {
-            java.io.InputStream bis = new java.io.BufferedInputStream(new ByteArrayInputStream(bytes));
-            Image img = new Image(bis);
-            // If image failed to load (width=0 and error), fallback to temp file
-            if (img.isError() || img.getWidth() <= 0) {
-                try {
-                    java.nio.file.Path tmp = java.nio.file.Files.createTempFile("peakplates-img-", ".jpg");
-                    java.nio.file.Files.write(tmp, bytes);
-                    tmp.toFile().deleteOnExit();
-                    Image img2 = new Image(tmp.toUri().toString());
-                    if (!img2.isError() && img2.getWidth() > 0) return img2;
-                } catch (Exception ex) {
-                    System.err.println("Fallback temp-file image load failed: " + ex.getMessage());
-                }
-                return null;
-            }
-            return img;
-        } catch (Exception e) {
-            System.err.println("createImageFromBytes error: " + e.getMessage());
-            return null;
-        }
-    }
 
 
 }
@@ -1,38 +1,51 @@
 package com.example.peakplatesapp;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.CheckBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.layout.HBox;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.geometry.Insets;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
 import java.io.IOException;
-import java.util.concurrent.ExecutionException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.function.UnaryOperator;
 
 public class FavoritesController {
     @FXML
-    private VBox favoritesContainer;
+    private ListView<RecipeSummary> favoritesList;
+    @FXML
+    private Label feedStatusLabel;
     @FXML
     private Label favoriteCountLabel;
     @FXML
     private TextField searchField;
     @FXML
     private FlowPane filterTagsContainer;
+    @FXML
+    private CheckBox matchAllTagsCheckBox;
 
     private MainApp mainApp;
     private String userId;
-    private List<Recipe> allFavorites = new ArrayList<>();
-    private Set<String> selectedTags = new HashSet<>();
+    private List<RecipeSummary> allFavorites = new ArrayList<>();
+    private final RecipeSearchEngine searchEngine = new RecipeSearchEngine();
+    private TagFilterPanel filters;
+
+    // Favorites are queried server-side a page at a time as the user scrolls
+    private static final int PAGE_SIZE = 20;
+    private RecipeFeed feed;
+    private final Label placeholderLabel = new Label("Loading favorites...");
+
+    // Rows unfavorited on this screen, with their position, so a failed write can put them back
+    private record RemovedFavorite(int index, RecipeSummary recipe) {
+    }
+    private final Map<String, RemovedFavorite> removedFavorites = new HashMap<>();
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -42,6 +55,16 @@ public class FavoritesController {
         this.userId = userId;
     }
 
+    @FXML
+    public void initialize() {
+        filters = new TagFilterPanel(searchField, filterTagsContainer, matchAllTagsCheckBox, this::applyFilters);
+        // Cells are reused while scrolling; showing one of the last rows loads the next page
+        favoritesList.setCellFactory(list -> new RecipeListCell(
+                this::showRecipeDetails, this::handleLikeToggle, this::handleFavoriteToggle, this::handleShare, this::loadMoreFavorites));
+        placeholderLabel.setStyle("-fx-font-size: 16; -fx-text-fill: rgba(255,255,255,0.85);");
+        favoritesList.setPlaceholder(placeholderLabel);
+    }
+
     @FXML
     public void handleUploadRecipe() {
         try {
@@ -96,180 +119,122 @@ public class FavoritesController {
             return;
         }
 
-        try {
-            QuerySnapshot recipesSnapshot = FirestoreContext.getFirestore()
-                    .collection("recipes")
-                    .get()
-                    .get();
-
-            allFavorites.clear();
-            Set<String> allTags = new HashSet<>();
-            int favoriteCount = 0;
-
-            for (QueryDocumentSnapshot doc : recipesSnapshot.getDocuments()) {
-                Recipe recipe = doc.toObject(Recipe.class);
-                recipe.setId(doc.getId());
-
-                // Check if current user has favorited this recipe
-                if (recipe.getFavoriteByUsers() != null && recipe.getFavoriteByUsers().contains(userId)) {
-                    allFavorites.add(recipe);
-                    favoriteCount++;
-                    if (recipe.getTags() != null) {
-                        allTags.addAll(recipe.getTags());
-                    }
-                }
-            }
+        // Start loading the liked/favorited ids so the first toggle does not wait
+        UserReactions.of(userId);
+        String favoritesOf = userId;
+        allFavorites.clear();
+        removedFavorites.clear();
+        searchEngine.clear();
+        filters.clear();
+        feed = new RecipeFeed((limit, after) -> {
+            // Favorites toggled just before opening the page must be written before querying them
+            if (after == null) WriteBehindQueue.of(favoritesOf).flush();
+            return Repositories.recipes().findFavoritedBy(favoritesOf, limit, after);
+        }, PAGE_SIZE);
+        placeholderLabel.setText("Loading favorites...");
+        hideFeedStatus();
+        favoritesList.getItems().clear();
+        loadMoreFavorites();
+    }
 
-            int finalFavCount = favoriteCount;
-            Set<String> finalTags = allTags;
-            javafx.application.Platform.runLater(() -> {
-                populateFilterTags(new ArrayList<>(finalTags));
-                displayFavorites(allFavorites);
-                favoriteCountLabel.setText(finalFavCount + " favorite" + (finalFavCount != 1 ? "s" : ""));
-            });
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("Error loading favorites: " + e.getMessage());
-            e.printStackTrace();
-        }
+    private void loadMoreFavorites() {
+        RecipeFeed currentFeed = feed;
+        if (currentFeed == null || !currentFeed.hasMore() || currentFeed.isLoading()) return;
+
+        if (!allFavorites.isEmpty()) showFeedStatus("Loading more favorites...");
+        currentFeed.loadNext(
+                page -> Platform.runLater(() -> {
+                    // Ignore pages from a feed that has since been reloaded
+                    if (currentFeed == feed) appendFavorites(page);
+                }),
+                error -> {
+                    System.err.println("Error loading favorites: " + error.getMessage());
+                    error.printStackTrace();
+                    Platform.runLater(() -> {
+                        if (currentFeed != feed) return;
+                        if (allFavorites.isEmpty()) {
+                            placeholderLabel.setText("Error loading favorites.");
+                        } else {
+                            showFeedStatus("Error loading favorites.");
+                        }
+                    });
+                });
     }
 
-    private void populateFilterTags(List<String> tags) {
-        filterTagsContainer.getChildren().clear();
-        for (String tag : tags) {
-            CheckBox tagCheckBox = new CheckBox(tag);
-            tagCheckBox.setStyle("-fx-font-size: 12;");
-            tagCheckBox.setOnAction(e -> {
-                if (tagCheckBox.isSelected()) {
-                    selectedTags.add(tag);
-                } else {
-                    selectedTags.remove(tag);
-                }
-                applyFilters();
-            });
-            filterTagsContainer.getChildren().add(tagCheckBox);
+    private void appendFavorites(List<RecipeSummary> page) {
+        hideFeedStatus();
+        allFavorites.addAll(page);
+        searchEngine.addAll(page, this::refreshSearch);
+        filters.addAll(page);
+
+        updateFavoriteCount();
+
+        placeholderLabel.setText("You haven't favorited any recipes yet!");
+
+        // While the viewport is not filled yet, the new last rows ask for the next page
+        if (filters.isFiltering()) {
+            applyFilters();
+        } else {
+            filters.updateCounts("", List.of());
+            favoritesList.getItems().addAll(page);
         }
     }
 
+    private void updateFavoriteCount() {
+        int count = allFavorites.size();
+        String more = feed != null && feed.hasMore() ? "+" : "";
+        favoriteCountLabel.setText(count + more + " favorite" + (count != 1 || !more.isEmpty() ? "s" : ""));
+    }
+
+    private void showFeedStatus(String text) {
+        feedStatusLabel.setText(text);
+        feedStatusLabel.setVisible(true);
+        feedStatusLabel.setManaged(true);
+    }
+
+    private void hideFeedStatus() {
+        feedStatusLabel.setVisible(false);
+        feedStatusLabel.setManaged(false);
+    }
+
     @FXML
     private void handleSearch() {
         applyFilters();
     }
 
+    @FXML
+    private void handleMatchAllTags() {
+        applyFilters();
+    }
+
     @FXML
     private void handleClearSearch() {
-        searchField.clear();
-        selectedTags.clear();
-        for (javafx.scene.Node node : filterTagsContainer.getChildren()) {
-            if (node instanceof CheckBox) {
-                ((CheckBox) node).setSelected(false);
-            }
-        }
+        filters.reset();
         displayFavorites(allFavorites);
     }
 
-    private void applyFilters() {
-        String searchQuery = searchField.getText() != null ? searchField.getText().trim().toLowerCase() : "";
-        List<Recipe> filtered = new ArrayList<>();
-
-        for (Recipe recipe : allFavorites) {
-            // Check name match
-            boolean nameMatches = recipe.getTitle() != null && recipe.getTitle().toLowerCase().contains(searchQuery);
-
-            // Check tag matches
-            boolean tagsMatch = true;
-            if (!selectedTags.isEmpty()) {
-                tagsMatch = recipe.getTags() != null && recipe.getTags().stream().anyMatch(selectedTags::contains);
-            }
+    // Ingredients and steps are indexed after the page arrives; re-run an active search with them
+    private void refreshSearch() {
+        if (!filters.searchText().isBlank()) applyFilters();
+    }
 
-            // Include if name matches (when searching) or if tags match (when filtering)
-            if ((searchQuery.isEmpty() || nameMatches) && tagsMatch) {
-                filtered.add(recipe);
-            }
-        }
+    private void applyFilters() {
+        String searchQuery = filters.searchText();
+        // Ranked by relevance while searching, feed order otherwise
+        List<RecipeSummary> candidates = searchQuery.isBlank() ? allFavorites : searchEngine.search(searchQuery, allFavorites);
+        // Any of the selected tags, or all of them when "Match all selected" is checked
+        List<RecipeSummary> filtered = filters.select(candidates);
+        filters.updateCounts(searchQuery, candidates);
 
         displayFavorites(filtered);
     }
 
-    private void displayFavorites(List<Recipe> recipes) {
-        favoritesContainer.getChildren().clear();
-        if (recipes.isEmpty()) {
-            favoritesContainer.getChildren().add(new Label("No recipes found."));
-        } else {
-            for (Recipe recipe : recipes) {
-                favoritesContainer.getChildren().add(createFavoriteRecipeCard(recipe));
-            }
-        }
-    }
-    private VBox createFavoriteRecipeCard(Recipe recipe) {
-        VBox card = new VBox(10);
-        card.setPadding(new Insets(10));
-        card.setStyle("-fx-background-color: #ffffff; -fx-border-color: #cccccc; -fx-border-radius: 8; -fx-background-radius: 8;");
-
-        // Title
-        Label titleLabel = new Label(recipe.getTitle() != null ? recipe.getTitle() : "Untitled Recipe");
-        titleLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
-        card.getChildren().add(titleLabel);
-
-        // By: username
-        Label byLabelCard = new Label("By: " + (recipe.getUsername() != null ? recipe.getUsername() : "Unknown"));
-        byLabelCard.setStyle("-fx-font-size: 12; -fx-text-fill: #666;");
-        card.getChildren().add(byLabelCard);
-
-        // Tags (display under title)
-        if (recipe.getTags() != null && !recipe.getTags().isEmpty()) {
-            javafx.scene.layout.FlowPane tagsFlow = new javafx.scene.layout.FlowPane(8, 6);
-            for (String t : recipe.getTags()) {
-                Label tagLabel = new Label(t);
-                tagLabel.setStyle("-fx-background-color: #e0f2f1; -fx-padding: 4 8; -fx-border-radius: 4; -fx-background-radius: 4; -fx-font-size: 11;");
-                tagsFlow.getChildren().add(tagLabel);
-            }
-            card.getChildren().add(tagsFlow);
-        }
-
-        // Image
-        Image img = null;
-        if (recipe.getImageData() != null) {
-            try {
-                byte[] bytes = recipe.getImageData().toBytes();
-                if (bytes.length > 0) {
-                    img = createImageFromBytes(bytes);
-                }
-            } catch (Exception e) {
-                System.err.println("Image decode failed: " + e.getMessage());
-            }
-        }
-
-        if (img != null) {
-            ImageView imageView = new ImageView(img);
-            imageView.setFitWidth(350);
-            imageView.setPreserveRatio(true);
-            imageView.setStyle("-fx-cursor: hand;");
-            imageView.setOnMouseClicked(e -> showRecipeDetails(recipe));
-            card.getChildren().add(imageView);
-        }
-
-        // Actions: View / Like / Favorite / Share
-        HBox actions = new HBox(10);
-
-        javafx.scene.control.Button viewButton = new javafx.scene.control.Button("📖 View");
-        viewButton.setOnAction(e -> showRecipeDetails(recipe));
-
-        javafx.scene.control.Button likeButton = new javafx.scene.control.Button("❤️ Like (" + recipe.getLikes() + ")");
-        likeButton.setOnAction(e -> handleLikeToggle(recipe));
-
-        javafx.scene.control.Button favButton = new javafx.scene.control.Button("⭐ Favorite (" + recipe.getFavorites() + ")");
-        favButton.setOnAction(e -> handleFavoriteToggle(recipe));
-
-        javafx.scene.control.Button shareButton = new javafx.scene.control.Button("📤 Share (" + recipe.getShares() + ")");
-        shareButton.setOnAction(e -> handleShare(recipe));
-
-        actions.getChildren().addAll(viewButton, likeButton, favButton, shareButton);
-        card.getChildren().add(actions);
-
-        return card;
+    private void displayFavorites(List<RecipeSummary> recipes) {
+        placeholderLabel.setText(allFavorites.isEmpty() ? "You haven't favorited any recipes yet!" : "No recipes found.");
+        favoritesList.getItems().setAll(recipes);
     }
 
-    private void handleShare(Recipe recipe) {
+    private void handleShare(RecipeSummary recipe) {
         try {
             if (mainApp != null && userId != null) {
                 mainApp.switchToShareRecipe(userId, recipe);
@@ -280,59 +245,73 @@ public class FavoritesController {
         }
     }
 
-    private void handleLikeToggle(Recipe recipe) {
-        try {
-            java.util.List<String> liked = recipe.getLikedByUsers();
-            if (liked == null) liked = new java.util.ArrayList<>();
-            if (!liked.contains(userId)) {
-                liked.add(userId);
-                recipe.setLikes(recipe.getLikes() + 1);
-            } else {
-                liked.remove(userId);
-                recipe.setLikes(Math.max(0, recipe.getLikes() - 1));
-            }
-
-            recipe.setLikedByUsers(liked);
-            FirestoreContext.getFirestore()
-                    .collection("recipes")
-                    .document(recipe.getId())
-                    .update("likes", recipe.getLikes(), "likedByUsers", liked)
-                    .get();
+    private void handleLikeToggle(RecipeSummary recipe) {
+        // Patches just this row right away; the write runs in the background and is undone if it fails
+        RecipeActions.toggleLike(userId, recipe, this::patchRecipe,
+                e -> showAlert("Error", "Failed to update like: " + e.getMessage()));
+    }
 
-            loadFavorites();
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert("Error", "Failed to update like: " + e.getMessage());
-        }
+    private void handleFavoriteToggle(RecipeSummary recipe) {
+        RecipeActions.toggleFavorite(userId, recipe, this::patchFavorite,
+                e -> showAlert("Error", "Failed to update favorite: " + e.getMessage()));
     }
 
-    private void handleFavoriteToggle(Recipe recipe) {
-        try {
-            java.util.List<String> favs = recipe.getFavoriteByUsers();
-            if (favs == null) favs = new java.util.ArrayList<>();
-            if (!favs.contains(userId)) {
-                favs.add(userId);
-                recipe.setFavorites(recipe.getFavorites() + 1);
+    // Unfavoriting removes the row; if the write fails, the rollback puts it back where it was
+    private void patchFavorite(String recipeId, UnaryOperator<RecipeSummary> change) {
+        // The reactions already hold the state this patch is for, the toggle's or the rollback's
+        if (UserReactions.of(userId).isFavorited(recipeId)) {
+            RemovedFavorite removed = removedFavorites.remove(recipeId);
+            if (removed != null) {
+                restoreFavorite(removed, change.apply(removed.recipe()));
             } else {
-                favs.remove(userId);
-                recipe.setFavorites(Math.max(0, recipe.getFavorites() - 1));
+                patchRecipe(recipeId, change);
             }
+            return;
+        }
 
-            recipe.setFavoriteByUsers(favs);
-            FirestoreContext.getFirestore()
-                    .collection("recipes")
-                    .document(recipe.getId())
-                    .update("favorites", recipe.getFavorites(), "favoriteByUsers", favs)
-                    .get();
+        patchRecipe(recipeId, change);
+        for (int i = 0; i < allFavorites.size(); i++) {
+            if (recipeId.equals(allFavorites.get(i).getId())) {
+                removedFavorites.put(recipeId, new RemovedFavorite(i, allFavorites.remove(i)));
+                break;
+            }
+        }
+        favoritesList.getItems().removeIf(r -> recipeId.equals(r.getId()));
+        filters.remove(recipeId);
+        updateFavoriteCount();
+        if (filters.isFiltering()) {
+            applyFilters();
+        } else {
+            filters.updateCounts("", List.of());
+        }
+    }
 
-            loadFavorites();
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert("Error", "Failed to update favorite: " + e.getMessage());
+    private void restoreFavorite(RemovedFavorite removed, RecipeSummary recipe) {
+        int index = Math.min(removed.index(), allFavorites.size());
+        allFavorites.add(index, recipe);
+        filters.add(recipe);
+        updateFavoriteCount();
+        if (filters.isFiltering()) {
+            applyFilters();
+        } else {
+            // Unfiltered, the rows are allFavorites in the same order
+            favoritesList.getItems().add(Math.min(index, favoritesList.getItems().size()), recipe);
+            filters.updateCounts("", List.of());
         }
     }
 
-    private void showRecipeDetails(Recipe recipe) {
+    // Applies a change to the recipe in the loaded list and the visible rows
+    private void patchRecipe(String recipeId, UnaryOperator<RecipeSummary> change) {
+        RecipeActions.patchById(allFavorites, recipeId, change);
+        RecipeActions.patchById(favoritesList.getItems(), recipeId, change);
+    }
+
+    // Loads the full recipe (cached after the first open) and its image before showing the details dialog
+    private void showRecipeDetails(RecipeSummary summary) {
+        RecipeDetailsLoader.open(summary, this::showRecipeDetails, this::showAlert);
+    }
+
+    private void showRecipeDetails(Recipe recipe, Image image) {
         javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
         alert.setTitle(recipe.getTitle());
         alert.setHeaderText(null);
@@ -344,20 +323,8 @@ public class FavoritesController {
         titleLabel.setStyle("-fx-font-size: 20; -fx-font-weight: bold;");
         content.getChildren().add(titleLabel);
 
-        Image img = null;
-        if (recipe.getImageData() != null) {
-            try {
-                byte[] bytes = recipe.getImageData().toBytes();
-                if (bytes.length > 0) {
-                    img = createImageFromBytes(bytes);
-                }
-            } catch (Exception e) {
-                System.err.println("Image decode failed: " + e.getMessage());
-            }
-        }
-
-        if (img != null) {
-            ImageView imageView = new ImageView(img);
+        if (image != null) {
+            ImageView imageView = new ImageView(image);
             imageView.setFitWidth(380);
             imageView.setPreserveRatio(true);
             content.getChildren().add(imageView);
@@ -401,51 +368,6 @@ public class FavoritesController {
         alert.showAndWait();
     }
 
-    private Image createImageFromBytes(byte[] bytes) {
-        try {
-            java.io.InputStream bis = new java.io.BufferedInputStream(new java.io.ByteArrayInputStream(bytes));
-            Image img = new Image(bis);
-            if (img.isError() || img.getWidth() <= 0) {
-                try {
-                    java.nio.file.Path tmp = java.nio.file.Files.createTempFile("peakplates-img-", ".jpg");
-                    java.nio.file.Files.write(tmp, bytes);
-                    tmp.toFile().deleteOnExit();
-                    Image img2 = new Image(tmp.toUri().toString());
-                    if (!img2.isError() && img2.getWidth() > 0) return img2;
-                } catch (Exception ex) {
-                    System.err.println("Favorites fallback temp-file image load failed: " + ex.getMessage());
-                }
-                return null;
-            }
-            return img;
-        } catch (Exception e) {
-            System.err.println("Favorites createImageFromBytes error: " + e.getMessage());
-            return null;
-        }
-    }
-
-    private void handleRemoveFavorite(Recipe recipe) {
-        try {
-            java.util.List<String> favoriteByUsers = recipe.getFavoriteByUsers();
-            if (favoriteByUsers != null && favoriteByUsers.contains(userId)) {
-                favoriteByUsers.remove(userId);
-                recipe.setFavorites(Math.max(0, recipe.getFavorites() - 1));
-
-                FirestoreContext.getFirestore()
-                        .collection("recipes")
-                        .document(recipe.getId())
-                        .update("favorites", recipe.getFavorites(), "favoriteByUsers", favoriteByUsers)
-                        .get();
-
-                System.out.println("Recipe removed from favorites");
-                loadFavorites(); // Refresh favorites
-            }
-        } catch (Exception e) {
-            System.err.println("Error removing from favorites: " + e.getMessage());
-            showAlert("Error", "Failed to remove from favorites: " + e.getMessage());
-        }
-    }
-
     @FXML
     public void handleBackToDashboard() {
         try {
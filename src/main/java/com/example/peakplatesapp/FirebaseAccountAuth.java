@@ -0,0 +1,51 @@
+package com.example.peakplatesapp;
+
+import com.google.api.core.ApiFuture;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.UserRecord;
+import com.google.firebase.auth.UserRecord.CreateRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Firebase Auth implementation of {@link AccountAuth}.
+ */
+public class FirebaseAccountAuth implements AccountAuth {
+
+    @Override
+    public String createUser(String email, String password, String displayName) throws ExecutionException, InterruptedException {
+        CreateRequest request = new CreateRequest()
+                .setEmail(email)
+                .setEmailVerified(false)
+                .setPassword(password)
+                .setDisplayName(displayName);
+        return FirestoreContext.getAuth().createUserAsync(request).get().getUid();
+    }
+
+    @Override
+    public Future<String> lookupUid(String email) {
+        ApiFuture<UserRecord> lookup = FirestoreContext.getAuth().getUserByEmailAsync(email);
+        CompletableFuture<String> uid = new CompletableFuture<>();
+        lookup.addListener(() -> {
+            try {
+                uid.complete(lookup.get().getUid());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof FirebaseAuthException) {
+                    System.err.println("❌ Firebase Auth lookup failed: " + e.getCause().getMessage());
+                    uid.complete(null);
+                } else {
+                    uid.completeExceptionally(e.getCause());
+                }
+            } catch (Exception e) {
+                uid.completeExceptionally(e);
+            }
+        }, Runnable::run);
+        // Cancelling the result cancels the request
+        uid.whenComplete((result, error) -> {
+            if (uid.isCancelled()) lookup.cancel(true);
+        });
+        return uid;
+    }
+}
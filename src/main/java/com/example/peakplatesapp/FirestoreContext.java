@@ -2,10 +2,12 @@ package com.example.peakplatesapp;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.storage.Bucket;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.cloud.FirestoreClient;
+import com.google.firebase.cloud.StorageClient;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -15,6 +17,7 @@ import java.io.InputStream;
 public class FirestoreContext {
     private static Firestore firestoreInstance;
     private static FirebaseAuth firebaseAuthInstance;
+    private static Bucket bucketInstance;
 
     public static Firestore getFirestore() {
         if (firestoreInstance == null) {
@@ -32,6 +35,18 @@ public class FirestoreContext {
         return firebaseAuthInstance;
     }
 
+    // Bucket from -Dpeakplates.bucket, or the project's default Firebase bucket
+    public static synchronized Bucket getBucket() {
+        if (bucketInstance == null) {
+            String name = System.getProperty("peakplates.bucket");
+            if (name == null || name.isEmpty()) {
+                name = getFirestore().getOptions().getProjectId() + ".appspot.com";
+            }
+            bucketInstance = StorageClient.getInstance().bucket(name);
+        }
+        return bucketInstance;
+    }
+
     private static synchronized void initializeFirebase() {
         if (FirebaseApp.getApps().isEmpty()) {
             try {
@@ -0,0 +1,58 @@
+package com.example.peakplatesapp;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public class FirestoreFriendRequestRepository implements FriendRequestRepository {
+
+    private CollectionReference friendRequests() {
+        return FirestoreContext.getFirestore().collection("friendRequests");
+    }
+
+    @Override
+    public List<FriendRequest> findPendingFor(String toUserId) throws ExecutionException, InterruptedException {
+        QuerySnapshot snapshot = friendRequests()
+                .whereEqualTo("toUserId", toUserId)
+                .whereEqualTo("status", "pending")
+                .get()
+                .get();
+
+        List<FriendRequest> result = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+            FriendRequest request = doc.toObject(FriendRequest.class);
+            request.setId(doc.getId());
+            result.add(request);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean exists(String fromUserId, String toUserId, String status) throws ExecutionException, InterruptedException {
+        Query query = friendRequests()
+                .whereEqualTo("fromUserId", fromUserId)
+                .whereEqualTo("toUserId", toUserId);
+        if (status != null) {
+            query = query.whereEqualTo("status", status);
+        }
+        return !query.limit(1).get().get().isEmpty();
+    }
+
+    @Override
+    public void save(FriendRequest request) throws ExecutionException, InterruptedException {
+        if (request.getId() == null) {
+            request.setId(friendRequests().document().getId());
+        }
+        friendRequests().document(request.getId()).set(request).get();
+    }
+
+    @Override
+    public void updateStatus(String requestId, String status) throws ExecutionException, InterruptedException {
+        friendRequests().document(requestId).update("status", status).get();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.peakplatesapp;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Friendships are stored once in "friendships" (user1, user2) and indexed per user as
+ * users/{id}/friends/{friendId}, so reading a user's friends is a single query on their own
+ * subcollection. Both are written in the same batch on add/remove. Users created before the
+ * index existed get it backfilled from "friendships" the first time their friends are read.
+ */
+public class FirestoreFriendshipRepository implements FriendshipRepository {
+    // Marker on the user document once users/{id}/friends is complete
+    private static final String INDEXED_FIELD = "friendsIndexed";
+    private static final int MAX_BATCH_WRITES = 500;
+
+    // Users whose index was already checked by this client
+    private final Set<String> indexed = ConcurrentHashMap.newKeySet();
+
+    private CollectionReference friendships() {
+        return FirestoreContext.getFirestore().collection("friendships");
+    }
+
+    private CollectionReference friendsOf(String userId) {
+        return FirestoreContext.getFirestore().collection("users").document(userId).collection("friends");
+    }
+
+    @Override
+    public List<String> findFriendIds(String userId) throws ExecutionException, InterruptedException {
+        ensureIndexed(userId);
+        List<String> friendIds = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : friendsOf(userId).select(FieldPath.documentId()).get().get().getDocuments()) {
+            friendIds.add(doc.getId());
+        }
+        return friendIds;
+    }
+
+    @Override
+    public boolean areFriends(String userA, String userB) throws ExecutionException, InterruptedException {
+        ensureIndexed(userA);
+        return friendsOf(userA).document(userB).get().get().exists();
+    }
+
+    @Override
+    public void add(String user1, String user2) throws ExecutionException, InterruptedException {
+        Timestamp now = Timestamp.now();
+        Map<String, Object> friendship = new HashMap<>();
+        friendship.put("user1", user1);
+        friendship.put("user2", user2);
+        friendship.put("createdAt", now);
+
+        WriteBatch batch = FirestoreContext.getFirestore().batch();
+        batch.set(friendships().document(), friendship);
+        batch.set(friendsOf(user1).document(user2), Map.of("since", now));
+        batch.set(friendsOf(user2).document(user1), Map.of("since", now));
+        batch.commit().get();
+    }
+
+    @Override
+    public void remove(String userA, String userB) throws ExecutionException, InterruptedException {
+        // Both directions are queried at the same time
+        ApiFuture<QuerySnapshot> forward = friendships().whereEqualTo("user1", userA).whereEqualTo("user2", userB).get();
+        ApiFuture<QuerySnapshot> backward = friendships().whereEqualTo("user1", userB).whereEqualTo("user2", userA).get();
+
+        WriteBatch batch = FirestoreContext.getFirestore().batch();
+        for (QueryDocumentSnapshot doc : forward.get().getDocuments()) {
+            batch.delete(doc.getReference());
+        }
+        for (QueryDocumentSnapshot doc : backward.get().getDocuments()) {
+            batch.delete(doc.getReference());
+        }
+        batch.delete(friendsOf(userA).document(userB));
+        batch.delete(friendsOf(userB).document(userA));
+        batch.commit().get();
+    }
+
+    // Backfills users/{id}/friends from the friendships collection if the user has no complete index yet
+    private void ensureIndexed(String userId) throws ExecutionException, InterruptedException {
+        if (indexed.contains(userId)) return;
+
+        DocumentReference user = FirestoreContext.getFirestore().collection("users").document(userId);
+        DocumentSnapshot state = FirestoreContext.getFirestore()
+                .getAll(new DocumentReference[]{user}, FieldMask.of(INDEXED_FIELD))
+                .get()
+                .get(0);
+        if (!Boolean.TRUE.equals(state.getBoolean(INDEXED_FIELD))) {
+            ApiFuture<QuerySnapshot> asUser1 = friendships().whereEqualTo("user1", userId).get();
+            ApiFuture<QuerySnapshot> asUser2 = friendships().whereEqualTo("user2", userId).get();
+
+            List<QueryDocumentSnapshot> docs = new ArrayList<>(asUser1.get().getDocuments());
+            docs.addAll(asUser2.get().getDocuments());
+
+            WriteBatch batch = FirestoreContext.getFirestore().batch();
+            int inBatch = 0;
+            for (QueryDocumentSnapshot doc : docs) {
+                String friendId = userId.equals(doc.getString("user1")) ? doc.getString("user2") : doc.getString("user1");
+                if (friendId == null) continue;
+                Timestamp since = doc.getTimestamp("createdAt");
+                batch.set(friendsOf(userId).document(friendId), Map.of("since", since != null ? since : Timestamp.now()));
+                if (++inBatch == MAX_BATCH_WRITES - 1) {
+                    batch.commit().get();
+                    batch = FirestoreContext.getFirestore().batch();
+                    inBatch = 0;
+                }
+            }
+            // The marker goes in the last batch, so an interrupted backfill is retried
+            batch.set(user, Map.of(INDEXED_FIELD, true), SetOptions.merge());
+            batch.commit().get();
+        }
+        indexed.add(userId);
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.peakplatesapp;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+public class FirestoreRecipeRepository implements RecipeRepository {
+    // Firestore's limit on writes per batch
+    private static final int MAX_BATCH_WRITES = 500;
+    // Conditional batches tried per chunk before falling back to one transaction per change
+    private static final int MAX_CONDITIONAL_ATTEMPTS = 3;
+
+    private final ShardedCounters counters = ShardedCounters.shared();
+
+    private CollectionReference recipes() {
+        return FirestoreContext.getFirestore().collection("recipes");
+    }
+
+    @Override
+    public String newId() {
+        return recipes().document().getId();
+    }
+
+    @Override
+    public Recipe findById(String id) throws ExecutionException, InterruptedException {
+        List<Recipe> found = toRecipes(List.of(recipes().document(id).get().get()));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public List<Recipe> findAll() throws ExecutionException, InterruptedException {
+        QuerySnapshot snapshots = recipes().get().get();
+        return toRecipes(snapshots.getDocuments());
+    }
+
+    @Override
+    public List<RecipeSummary> findPage(int limit, RecipeSummary after) throws ExecutionException, InterruptedException {
+        return page(recipes(), limit, after);
+    }
+
+    @Override
+    public List<RecipeSummary> findFavoritedBy(String userId, int limit, RecipeSummary after) throws ExecutionException, InterruptedException {
+        // Served by the composite index (favoriteByUsers array-contains, timestamp desc)
+        List<RecipeSummary> result = page(recipes().whereArrayContains("favoriteByUsers", userId), limit, after);
+
+        // Favorites on sharded recipes are stored as recipes/{id}/reactions/{userId}; page them in the
+        // same order (collection group index: userId, favorited, recipeTimestamp desc, recipeId desc)
+        Query reactions = favoriteReactions(userId)
+                .orderBy("recipeTimestamp", Query.Direction.DESCENDING)
+                .orderBy("recipeId", Query.Direction.DESCENDING);
+        if (after != null) {
+            reactions = reactions.startAfter(after.getTimestamp(), after.getId());
+        }
+        List<String> shardedIds = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : reactions.limit(limit).get().get().getDocuments()) {
+            shardedIds.add(doc.getString("recipeId"));
+        }
+        if (shardedIds.isEmpty()) return result;
+
+        // Merge the two pages and keep the newest limit of them
+        Set<String> seen = new HashSet<>();
+        for (RecipeSummary summary : result) seen.add(summary.getId());
+        for (RecipeSummary summary : findSummariesByIds(shardedIds)) {
+            if (seen.add(summary.getId())) result.add(summary);
+        }
+        result.sort(Comparator.comparingLong(RecipeSummary::getTimestamp)
+                .thenComparing(RecipeSummary::getId)
+                .reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    @Override
+    public Set<String> findLikedIds(String userId) throws ExecutionException, InterruptedException {
+        Set<String> ids = ids(recipes().whereArrayContains("likedByUsers", userId));
+        // Likes on sharded recipes are stored as recipes/{id}/reactions/{userId}
+        Query reactions = FirestoreContext.getFirestore().collectionGroup("reactions")
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("liked", true);
+        for (QueryDocumentSnapshot doc : reactions.get().get().getDocuments()) {
+            ids.add(doc.getReference().getParent().getParent().getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> findFavoritedIds(String userId) throws ExecutionException, InterruptedException {
+        Set<String> ids = ids(recipes().whereArrayContains("favoriteByUsers", userId));
+        for (QueryDocumentSnapshot doc : favoriteReactions(userId).select("recipeId").get().get().getDocuments()) {
+            ids.add(doc.getReference().getParent().getParent().getId());
+        }
+        return ids;
+    }
+
+    private Query favoriteReactions(String userId) {
+        return FirestoreContext.getFirestore().collectionGroup("reactions")
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("favorited", true);
+    }
+
+    @Override
+    public List<Recipe> findByIds(List<String> ids) throws ExecutionException, InterruptedException {
+        if (ids.isEmpty()) return new ArrayList<>();
+        // getAll returns snapshots in request order, including ones that do not exist
+        return toRecipes(FirestoreContext.getFirestore().getAll(references(ids)).get());
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByIds(List<String> ids) throws ExecutionException, InterruptedException {
+        if (ids.isEmpty()) return new ArrayList<>();
+        FieldMask mask = FieldMask.of(RecipeSummary.FIELDS);
+        return toSummaries(FirestoreContext.getFirestore().getAll(references(ids), mask).get());
+    }
+
+    @Override
+    public List<Recipe> findTextByIds(List<String> ids) throws ExecutionException, InterruptedException {
+        List<Recipe> result = new ArrayList<>();
+        if (ids.isEmpty()) return result;
+        for (DocumentSnapshot doc : FirestoreContext.getFirestore()
+                .getAll(references(ids), FieldMask.of("ingredients", "steps")).get()) {
+            if (!doc.exists()) continue;
+            Recipe text = new Recipe();
+            text.setId(doc.getId());
+            text.setIngredients(doc.getString("ingredients"));
+            text.setSteps(doc.getString("steps"));
+            result.add(text);
+        }
+        return result;
+    }
+
+    @Override
+    public byte[] findImageData(String id) throws ExecutionException, InterruptedException {
+        DocumentSnapshot doc = FirestoreContext.getFirestore()
+                .getAll(new DocumentReference[]{recipes().document(id)}, FieldMask.of("imageData"))
+                .get()
+                .get(0);
+        Blob blob = doc.exists() ? doc.getBlob("imageData") : null;
+        return blob != null ? blob.toBytes() : null;
+    }
+
+    @Override
+    public void save(Recipe recipe) throws ExecutionException, InterruptedException {
+        if (recipe.getId() == null) {
+            recipe.setId(newId());
+        }
+        recipes().document(recipe.getId()).set(recipe).get();
+    }
+
+    @Override
+    public boolean setLiked(String id, String userId, boolean liked) throws ExecutionException, InterruptedException {
+        return setMember(id, ShardedCounters.Counter.LIKES, userId, liked);
+    }
+
+    @Override
+    public boolean setFavorited(String id, String userId, boolean favorited) throws ExecutionException, InterruptedException {
+        return setMember(id, ShardedCounters.Counter.FAVORITES, userId, favorited);
+    }
+
+    @Override
+    public int applyReactions(String userId, List<ReactionChange> changes, Consumer<ReactionChange> onSettled)
+            throws ExecutionException, InterruptedException {
+        Map<String, List<ReactionChange>> byRecipe = new LinkedHashMap<>();
+        for (ReactionChange change : changes) {
+            byRecipe.computeIfAbsent(change.recipeId(), id -> new ArrayList<>()).add(change);
+        }
+        List<String> ids = new ArrayList<>(byRecipe.keySet());
+
+        int applied = 0;
+        for (int i = 0; i < ids.size(); i += MAX_BATCH_WRITES) {
+            List<String> chunk = new ArrayList<>(ids.subList(i, Math.min(ids.size(), i + MAX_BATCH_WRITES)));
+            for (int attempt = 1; !chunk.isEmpty(); attempt++) {
+                if (attempt > MAX_CONDITIONAL_ATTEMPTS) {
+                    // Still contended: fall back to one transaction per change
+                    for (String id : chunk) {
+                        for (ReactionChange change : byRecipe.get(id)) {
+                            if (setMember(id, counterOf(change), userId, change.member())) applied++;
+                            onSettled.accept(change);
+                        }
+                    }
+                    break;
+                }
+                BatchResult result = applyChunk(userId, chunk, byRecipe, onSettled);
+                applied += result.applied();
+                chunk = result.conflicted();
+            }
+        }
+        return applied;
+    }
+
+    private record BatchResult(int applied, List<String> conflicted) {
+    }
+
+    // Writes one batch of recipes, each update conditional on the recipe not having changed since
+    // its membership was read. If any of them did, nothing in the batch is written and all its
+    // recipes are returned as conflicted, to be read and tried again
+    private BatchResult applyChunk(String userId, List<String> ids, Map<String, List<ReactionChange>> byRecipe,
+                                   Consumer<ReactionChange> onSettled) throws ExecutionException, InterruptedException {
+        Map<String, DocumentSnapshot> states = new HashMap<>();
+        for (DocumentSnapshot state : FirestoreContext.getFirestore()
+                .getAll(references(ids), FieldMask.of(ShardedCounters.STATE_FIELDS)).get()) {
+            states.put(state.getId(), state);
+        }
+        // Read after the states: a change in between moves the update time and fails the precondition
+        Set<String> liked = members(ids, ShardedCounters.Counter.LIKES, userId);
+        Set<String> favorited = members(ids, ShardedCounters.Counter.FAVORITES, userId);
+
+        int applied = 0;
+        int batched = 0;
+        List<String> inBatch = new ArrayList<>();
+        WriteBatch batch = FirestoreContext.getFirestore().batch();
+        for (String id : ids) {
+            DocumentSnapshot state = states.get(id);
+            if (state == null || !state.exists()) {
+                // Deleted meanwhile: nothing left to write
+                byRecipe.get(id).forEach(onSettled);
+                continue;
+            }
+
+            // Sharded recipes keep part of their state outside the document and need the transaction
+            if (ShardedCounters.isSharded(state)) {
+                for (ReactionChange change : byRecipe.get(id)) {
+                    if (setMember(id, counterOf(change), userId, change.member())) applied++;
+                    onSettled.accept(change);
+                }
+                continue;
+            }
+
+            Map<String, Object> updates = new HashMap<>();
+            for (ReactionChange change : byRecipe.get(id)) {
+                ShardedCounters.Counter counter = counterOf(change);
+                boolean present = (counter == ShardedCounters.Counter.LIKES ? liked : favorited).contains(id);
+                // Already in effect, e.g. from another device
+                if (present == change.member()) continue;
+                updates.put(counter.arrayField, change.member() ? FieldValue.arrayUnion(userId) : FieldValue.arrayRemove(userId));
+                updates.put(counter.field, FieldValue.increment(change.member() ? 1 : -1));
+                batched++;
+            }
+            if (updates.isEmpty()) {
+                byRecipe.get(id).forEach(onSettled);
+                continue;
+            }
+            ShardedCounters.recordWrite(state, updates);
+            batch.update(recipes().document(id), updates, Precondition.updatedAt(state.getUpdateTime()));
+            inBatch.add(id);
+        }
+        if (inBatch.isEmpty()) return new BatchResult(applied, List.of());
+
+        try {
+            batch.commit().get();
+        } catch (ExecutionException e) {
+            if (!failedPrecondition(e)) throw e;
+            return new BatchResult(applied, inBatch);
+        }
+        for (String id : inBatch) {
+            counters.invalidate(id);
+            byRecipe.get(id).forEach(onSettled);
+        }
+        return new BatchResult(applied + batched, List.of());
+    }
+
+    private static ShardedCounters.Counter counterOf(ReactionChange change) {
+        return change.kind() == ReactionChange.Kind.LIKE ? ShardedCounters.Counter.LIKES : ShardedCounters.Counter.FAVORITES;
+    }
+
+    private static boolean failedPrecondition(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api && api.getStatusCode().getCode() == StatusCode.Code.FAILED_PRECONDITION) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs ShardedCounters.setMember in its own transaction
+    private boolean setMember(String id, ShardedCounters.Counter counter, String userId, boolean member)
+            throws ExecutionException, InterruptedException {
+        DocumentReference ref = recipes().document(id);
+        boolean changed = FirestoreContext.getFirestore()
+                .runTransaction(transaction -> counters.setMember(transaction, ref, counter, userId, member))
+                .get();
+        if (changed) counters.invalidate(id);
+        return changed;
+    }
+
+    private List<RecipeSummary> page(Query base, int limit, RecipeSummary after) throws ExecutionException, InterruptedException {
+        // Document id breaks ties between recipes uploaded in the same millisecond
+        Query query = base
+                .select(RecipeSummary.FIELDS)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (after != null) {
+            query = query.startAfter(after.getTimestamp(), after.getId());
+        }
+
+        return toSummaries(query.limit(limit).get().get().getDocuments());
+    }
+
+    // Which of the ids have the user in the counter's array; whereIn takes at most 30 values per query
+    private Set<String> members(List<String> ids, ShardedCounters.Counter counter, String userId)
+            throws ExecutionException, InterruptedException {
+        Set<String> members = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += 30) {
+            members.addAll(ids(recipes()
+                    .whereIn(FieldPath.documentId(), new ArrayList<>(ids.subList(i, Math.min(ids.size(), i + 30))))
+                    .whereArrayContains(counter.arrayField, userId)));
+        }
+        return members;
+    }
+
+    // Runs the query selecting only document ids
+    private Set<String> ids(Query query) throws ExecutionException, InterruptedException {
+        Set<String> ids = new HashSet<>();
+        for (QueryDocumentSnapshot doc : query.select(FieldPath.documentId()).get().get().getDocuments()) {
+            ids.add(doc.getId());
+        }
+        return ids;
+    }
+
+    private DocumentReference[] references(List<String> ids) {
+        DocumentReference[] refs = new DocumentReference[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            refs[i] = recipes().document(ids.get(i));
+        }
+        return refs;
+    }
+
+    // Converts the snapshots that exist; the shard sums of all sharded ones are read at once
+    private List<RecipeSummary> toSummaries(List<? extends DocumentSnapshot> docs) throws ExecutionException, InterruptedException {
+        List<RecipeSummary> result = new ArrayList<>();
+        List<DocumentReference> sharded = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) {
+            RecipeSummary summary = doc.exists() ? doc.toObject(RecipeSummary.class) : null;
+            if (summary == null) continue;
+            summary.setId(doc.getId());
+            if (summary.isSharded()) sharded.add(doc.getReference());
+            result.add(summary);
+        }
+        if (sharded.isEmpty()) return result;
+
+        Map<String, long[]> totals = counters.totals(sharded);
+        for (RecipeSummary summary : result) {
+            long[] shards = totals.get(summary.getId());
+            if (shards == null) continue;
+            summary.setLikes(summary.getLikes() + (int) shards[ShardedCounters.Counter.LIKES.ordinal()]);
+            summary.setFavorites(summary.getFavorites() + (int) shards[ShardedCounters.Counter.FAVORITES.ordinal()]);
+            summary.setShares(summary.getShares() + (int) shards[ShardedCounters.Counter.SHARES.ordinal()]);
+        }
+        return result;
+    }
+
+    // Same as toSummaries for full recipes
+    private List<Recipe> toRecipes(List<? extends DocumentSnapshot> docs) throws ExecutionException, InterruptedException {
+        List<Recipe> result = new ArrayList<>();
+        List<DocumentReference> sharded = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) {
+            Recipe recipe = doc.exists() ? doc.toObject(Recipe.class) : null;
+            if (recipe == null) continue;
+            recipe.setId(doc.getId());
+            if (recipe.isSharded()) sharded.add(doc.getReference());
+            result.add(recipe);
+        }
+        if (sharded.isEmpty()) return result;
+
+        Map<String, long[]> totals = counters.totals(sharded);
+        for (Recipe recipe : result) {
+            long[] shards = totals.get(recipe.getId());
+            if (shards == null) continue;
+            recipe.setLikes(recipe.getLikes() + (int) shards[ShardedCounters.Counter.LIKES.ordinal()]);
+            recipe.setFavorites(recipe.getFavorites() + (int) shards[ShardedCounters.Counter.FAVORITES.ordinal()]);
+            recipe.setShares(recipe.getShares() + (int) shards[ShardedCounters.Counter.SHARES.ordinal()]);
+        }
+        return result;
+    }
+}
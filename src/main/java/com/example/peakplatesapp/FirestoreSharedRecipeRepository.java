@@ -0,0 +1,306 @@
+package com.example.peakplatesapp;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+public class FirestoreSharedRecipeRepository implements SharedRecipeRepository {
+    // Recipients per bulk-share batch (each costs one create) and batches committed at the same time
+    private static final int BULK_CHUNK_SIZE = 100;
+    private static final int MAX_PARALLEL_BATCHES = 4;
+
+    private final ShardedCounters counters = ShardedCounters.shared();
+
+    private CollectionReference recipes() {
+        return FirestoreContext.getFirestore().collection("recipes");
+    }
+
+    private CollectionReference sharedRecipes() {
+        return FirestoreContext.getFirestore().collection("sharedRecipes");
+    }
+
+    @Override
+    public List<SharedRecipe> findSharedWith(String userId) throws ExecutionException, InterruptedException {
+        QuerySnapshot snapshot = sharedRecipes().whereEqualTo("sharedWith", userId).get().get();
+
+        List<SharedRecipe> result = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+            SharedRecipe share = doc.toObject(SharedRecipe.class);
+            share.setId(doc.getId());
+            result.add(share);
+        }
+        return result;
+    }
+
+    @Override
+    public void save(SharedRecipe share) throws ExecutionException, InterruptedException {
+        if (share.getId() == null) {
+            share.setId(sharedRecipes().document().getId());
+        }
+        sharedRecipes().document(share.getId()).set(share).get();
+    }
+
+    @Override
+    public boolean share(SharedRecipe share) throws ExecutionException, InterruptedException {
+        share.setId(SharedRecipe.idFor(share.getRecipeId(), share.getSharedWith()));
+        DocumentReference record = sharedRecipes().document(share.getId());
+        DocumentReference recipe = recipes().document(share.getRecipeId());
+        // The recipe side goes through the sharded counters, so a much-shared recipe gets promoted.
+        // Shares made before records had deterministic ids are only found through the recipe's membership
+        boolean created = FirestoreContext.getFirestore().runTransaction(transaction -> {
+            if (transaction.get(record).get().exists()) return false;
+            if (!counters.setMember(transaction, recipe, ShardedCounters.Counter.SHARES, share.getSharedWith(), true)) {
+                return false;
+            }
+            transaction.create(record, share);
+            return true;
+        }).get();
+        if (created) counters.invalidate(share.getRecipeId());
+        return created;
+    }
+
+    @Override
+    public Map<String, ShareOutcome> shareAll(List<SharedRecipe> shares, IntConsumer onProgress) throws ExecutionException, InterruptedException {
+        Map<String, ShareOutcome> outcomes = new ConcurrentHashMap<>();
+        if (shares.isEmpty()) return outcomes;
+
+        // One read finds the recipients that already have a record
+        DocumentReference[] refs = new DocumentReference[shares.size()];
+        for (int i = 0; i < shares.size(); i++) {
+            SharedRecipe share = shares.get(i);
+            share.setId(SharedRecipe.idFor(share.getRecipeId(), share.getSharedWith()));
+            refs[i] = sharedRecipes().document(share.getId());
+        }
+        Set<String> existing = new HashSet<>();
+        for (DocumentSnapshot doc : FirestoreContext.getFirestore().getAll(refs, FieldMask.of("sharedWith")).get()) {
+            if (doc.exists()) existing.add(doc.getId());
+        }
+
+        Map<String, SharedRecipe> unrecorded = new LinkedHashMap<>();
+        for (SharedRecipe share : shares) {
+            if (existing.contains(share.getId())) {
+                outcomes.put(share.getSharedWith(), ShareOutcome.ALREADY_SHARED);
+            } else {
+                unrecorded.putIfAbsent(share.getId(), share);
+            }
+        }
+        // Older shares have random record ids; their recipients are only found on the recipe
+        Map<String, DocumentSnapshot> states = readRecipes(unrecorded.values());
+        Set<String> members = existingMembers(unrecorded.values(), states);
+        List<SharedRecipe> pending = new ArrayList<>();
+        for (SharedRecipe share : unrecorded.values()) {
+            if (members.contains(share.getId())) {
+                outcomes.put(share.getSharedWith(), ShareOutcome.ALREADY_SHARED);
+            } else {
+                pending.add(share);
+            }
+        }
+        AtomicInteger done = new AtomicInteger(shares.size() - pending.size());
+        onProgress.accept(done.get());
+        if (pending.isEmpty()) return outcomes;
+        promoteBusyRecipes(pending, states);
+
+        Queue<List<SharedRecipe>> chunks = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < pending.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(pending.subList(i, Math.min(pending.size(), i + BULK_CHUNK_SIZE)));
+        }
+        // Each worker commits chunks until none are left; the calling thread is one of them
+        Runnable worker = () -> {
+            List<SharedRecipe> chunk;
+            while ((chunk = chunks.poll()) != null) {
+                commitChunk(chunk, states, outcomes);
+                onProgress.accept(done.addAndGet(chunk.size()));
+            }
+        };
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 1; i < Math.min(MAX_PARALLEL_BATCHES, chunks.size()); i++) {
+            workers.add(CompletableFuture.runAsync(worker, AppExecutors.io()));
+        }
+        worker.run();
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).get();
+        return outcomes;
+    }
+
+    // Counter state and sharedWith of every recipe being shared, by recipe id
+    private Map<String, DocumentSnapshot> readRecipes(Collection<SharedRecipe> shares) throws ExecutionException, InterruptedException {
+        Set<String> ids = new LinkedHashSet<>();
+        for (SharedRecipe share : shares) {
+            ids.add(share.getRecipeId());
+        }
+        DocumentReference[] refs = new DocumentReference[ids.size()];
+        int i = 0;
+        for (String id : ids) {
+            refs[i++] = recipes().document(id);
+        }
+        List<String> fields = new ArrayList<>(List.of(ShardedCounters.STATE_FIELDS));
+        fields.add(ShardedCounters.Counter.SHARES.arrayField);
+
+        Map<String, DocumentSnapshot> states = new HashMap<>();
+        if (refs.length == 0) return states;
+        for (DocumentSnapshot state : FirestoreContext.getFirestore().getAll(refs, FieldMask.of(fields.toArray(new String[0]))).get()) {
+            states.put(state.getId(), state);
+        }
+        return states;
+    }
+
+    /**
+     * Record ids of the shares whose recipient is already counted on the recipe, the way
+     * {@link ShardedCounters#setMember} decides it: the reaction doc of a sharded recipe if it has
+     * one, otherwise the recipe's sharedWith array.
+     */
+    private Set<String> existingMembers(Collection<SharedRecipe> shares, Map<String, DocumentSnapshot> states)
+            throws ExecutionException, InterruptedException {
+        ShardedCounters.Counter counter = ShardedCounters.Counter.SHARES;
+        Set<String> members = new HashSet<>();
+        List<SharedRecipe> sharded = new ArrayList<>();
+        for (SharedRecipe share : shares) {
+            DocumentSnapshot state = states.get(share.getRecipeId());
+            if (state == null || !state.exists()) continue;
+            if (ShardedCounters.isSharded(state)) {
+                sharded.add(share);
+            } else if (inArray(state, counter, share.getSharedWith())) {
+                members.add(share.getId());
+            }
+        }
+        if (sharded.isEmpty()) return members;
+
+        DocumentReference[] reactions = new DocumentReference[sharded.size()];
+        for (int i = 0; i < sharded.size(); i++) {
+            SharedRecipe share = sharded.get(i);
+            reactions[i] = recipes().document(share.getRecipeId()).collection("reactions").document(share.getSharedWith());
+        }
+        List<DocumentSnapshot> snapshots = FirestoreContext.getFirestore().getAll(reactions, FieldMask.of(counter.reactionField)).get();
+        for (int i = 0; i < sharded.size(); i++) {
+            SharedRecipe share = sharded.get(i);
+            DocumentSnapshot reaction = snapshots.get(i);
+            Boolean shared = reaction.exists() ? reaction.getBoolean(counter.reactionField) : null;
+            boolean member = shared != null ? shared : inArray(states.get(share.getRecipeId()), counter, share.getSharedWith());
+            if (member) members.add(share.getId());
+        }
+        return members;
+    }
+
+    private static boolean inArray(DocumentSnapshot state, ShardedCounters.Counter counter, String userId) {
+        Object array = state.get(counter.arrayField);
+        return array instanceof List<?> list && list.contains(userId);
+    }
+
+    /**
+     * A recipe getting at least PROMOTE_AFTER_WRITES new recipients is promoted to sharded counters
+     * up front, with one write, so the parallel chunks go to shards and reaction docs instead of all
+     * updating the recipe. The promoted states are re-read into states.
+     */
+    private void promoteBusyRecipes(List<SharedRecipe> pending, Map<String, DocumentSnapshot> states)
+            throws ExecutionException, InterruptedException {
+        Map<String, Integer> recipients = new HashMap<>();
+        for (SharedRecipe share : pending) {
+            recipients.merge(share.getRecipeId(), 1, Integer::sum);
+        }
+        List<DocumentReference> promoted = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : recipients.entrySet()) {
+            DocumentSnapshot state = states.get(entry.getKey());
+            if (state != null && state.exists() && !ShardedCounters.isSharded(state)
+                    && entry.getValue() >= ShardedCounters.PROMOTE_AFTER_WRITES) {
+                state.getReference().update("sharded", true).get();
+                promoted.add(state.getReference());
+            }
+        }
+        // Re-read so the chunks see the promotion
+        if (!promoted.isEmpty()) {
+            for (DocumentSnapshot state : FirestoreContext.getFirestore()
+                    .getAll(promoted.toArray(new DocumentReference[0]), FieldMask.of(ShardedCounters.STATE_FIELDS)).get()) {
+                states.put(state.getId(), state);
+            }
+        }
+    }
+
+    // Creates the chunk's records and counts them on each recipe, all or nothing. Every recipient is new to
+    // the recipe (existingMembers filtered the others), so the increment matches the members added. Sharded recipes get
+    // a reaction doc per recipient and one increment on a random shard; the others one update
+    private void commitChunk(List<SharedRecipe> chunk, Map<String, DocumentSnapshot> states, Map<String, ShareOutcome> outcomes) {
+        WriteBatch batch = FirestoreContext.getFirestore().batch();
+        Map<String, List<String>> recipientsByRecipe = new HashMap<>();
+        for (SharedRecipe share : chunk) {
+            batch.create(sharedRecipes().document(share.getId()), share);
+            recipientsByRecipe.computeIfAbsent(share.getRecipeId(), id -> new ArrayList<>()).add(share.getSharedWith());
+        }
+        for (Map.Entry<String, List<String>> entry : recipientsByRecipe.entrySet()) {
+            DocumentReference recipe = recipes().document(entry.getKey());
+            DocumentSnapshot state = states.get(entry.getKey());
+            int count = entry.getValue().size();
+            if (state != null && ShardedCounters.isSharded(state)) {
+                for (String recipient : entry.getValue()) {
+                    batch.set(recipe.collection("reactions").document(recipient),
+                            ShardedCounters.reaction(state, ShardedCounters.Counter.SHARES, recipient, true), SetOptions.merge());
+                }
+                batch.set(ShardedCounters.randomShard(recipe),
+                        Map.of(ShardedCounters.Counter.SHARES.field, FieldValue.increment(count)), SetOptions.merge());
+            } else {
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("sharedWith", FieldValue.arrayUnion(entry.getValue().toArray()));
+                updates.put("shares", FieldValue.increment(count));
+                if (state != null && state.exists()) ShardedCounters.recordWrite(state, updates);
+                batch.update(recipe, updates);
+            }
+        }
+
+        try {
+            batch.commit().get();
+            for (String recipeId : recipientsByRecipe.keySet()) counters.invalidate(recipeId);
+            for (SharedRecipe share : chunk) outcomes.put(share.getSharedWith(), ShareOutcome.SHARED);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (alreadyExists(e)) {
+                // Someone shared with one of them meanwhile: retry the chunk one recipient at a time
+                for (SharedRecipe share : chunk) {
+                    try {
+                        outcomes.put(share.getSharedWith(), share(share) ? ShareOutcome.SHARED : ShareOutcome.ALREADY_SHARED);
+                    } catch (Exception ex) {
+                        if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+                        System.err.println("Error sharing with " + share.getSharedWith() + ": " + ex.getMessage());
+                        outcomes.put(share.getSharedWith(), ShareOutcome.FAILED);
+                    }
+                }
+                return;
+            }
+            System.err.println("Error sharing with " + chunk.size() + " recipients: " + e.getMessage());
+        }
+        for (SharedRecipe share : chunk) outcomes.put(share.getSharedWith(), ShareOutcome.FAILED);
+    }
+
+    private static boolean alreadyExists(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api && api.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
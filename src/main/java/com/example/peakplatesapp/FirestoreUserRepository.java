@@ -0,0 +1,152 @@
+package com.example.peakplatesapp;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+public class FirestoreUserRepository implements UserRepository {
+    // Fields read for lists of users; the goals/daily maps and password stay on the server
+    private static final String[] PROFILE_FIELDS = {"username", "email", "displayName"};
+
+    private CollectionReference users() {
+        return FirestoreContext.getFirestore().collection("users");
+    }
+
+    @Override
+    public UserAccount findById(String uid) throws ExecutionException, InterruptedException {
+        DocumentSnapshot doc = users().document(uid).get().get();
+        if (!doc.exists()) return null;
+        UserAccount account = toAccount(doc);
+        account.setGoals(numbers(doc.get("goals")));
+        Object daily = doc.get("daily");
+        if (daily instanceof Map<?, ?> days) {
+            Map<String, Map<String, Object>> dailyLogs = new HashMap<>();
+            for (Map.Entry<?, ?> day : days.entrySet()) {
+                Map<String, Object> totals = numbers(day.getValue());
+                if (totals != null) dailyLogs.put(String.valueOf(day.getKey()), totals);
+            }
+            account.setDailyLogs(dailyLogs);
+        }
+        return account;
+    }
+
+    @Override
+    public List<UserAccount> findAll() throws ExecutionException, InterruptedException {
+        QuerySnapshot snapshot = users().get().get();
+        List<UserAccount> result = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+            result.add(toAccount(doc));
+        }
+        return result;
+    }
+
+    @Override
+    public List<UserAccount> findByIds(List<String> uids) throws ExecutionException, InterruptedException {
+        List<UserAccount> result = new ArrayList<>();
+        if (uids.isEmpty()) return result;
+        DocumentReference[] refs = new DocumentReference[uids.size()];
+        for (int i = 0; i < uids.size(); i++) {
+            refs[i] = users().document(uids.get(i));
+        }
+        for (DocumentSnapshot doc : FirestoreContext.getFirestore()
+                .getAll(refs, FieldMask.of(PROFILE_FIELDS)).get()) {
+            if (doc.exists()) result.add(toAccount(doc));
+        }
+        return result;
+    }
+
+    @Override
+    public List<UserAccount> findProfiles(long changedAfterMillis) throws ExecutionException, InterruptedException {
+        Query query = users();
+        if (changedAfterMillis > 0) {
+            // Single-field index on updatedAt, stamped by every profile write in save()
+            query = query.whereGreaterThan("updatedAt", Timestamp.ofTimeMicroseconds(changedAfterMillis * 1000));
+        }
+        List<UserAccount> result = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : query.select(PROFILE_FIELDS).get().get().getDocuments()) {
+            result.add(toAccount(doc));
+        }
+        return result;
+    }
+
+    @Override
+    public UserAccount findByEmail(String email) throws ExecutionException, InterruptedException {
+        // Emails are unique, so the first indexed match is enough
+        QuerySnapshot snapshot = users().whereEqualTo("email", email).limit(1).get().get();
+        for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+            return toAccount(doc);
+        }
+        return null;
+    }
+
+    @Override
+    public void save(UserAccount user) throws ExecutionException, InterruptedException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("username", user.getUsername());
+        data.put("email", user.getEmail());
+        data.put("password", user.getPassword());
+        data.put("displayName", user.getDisplayName());
+        data.put("uid", user.getUid());
+        // Lets other clients' UserDirectory pick up renames and profile edits
+        data.put("updatedAt", FieldValue.serverTimestamp());
+        DocumentReference ref = users().document(user.getUid());
+        FirestoreContext.getFirestore().runTransaction(transaction -> {
+            if (!transaction.get(ref).get().exists()) {
+                data.put("createdAt", FieldValue.serverTimestamp());
+            }
+            // Merge so goals and daily logs on an existing document survive
+            transaction.set(ref, data, SetOptions.merge());
+            return null;
+        }).get();
+    }
+
+    @Override
+    public void saveGoals(String uid, Map<String, Object> goals) throws ExecutionException, InterruptedException {
+        // Update only the goals sub-map
+        users().document(uid).update("goals", goals).get();
+    }
+
+    @Override
+    public void saveDailyLog(String uid, String date, Map<String, Object> totals) throws ExecutionException, InterruptedException {
+        // Dotted paths so the other days in the daily map are left alone
+        Map<String, Object> update = new HashMap<>();
+        for (Map.Entry<String, Object> total : totals.entrySet()) {
+            update.put("daily." + date + "." + total.getKey(), total.getValue());
+        }
+        users().document(uid).update(update).get();
+    }
+
+    // Copies a goals or daily totals map, or returns null when the field is missing
+    private static Map<String, Object> numbers(Object field) {
+        if (!(field instanceof Map<?, ?> map)) return null;
+        Map<String, Object> copy = new HashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(String.valueOf(entry.getKey()), entry.getValue());
+        }
+        return copy;
+    }
+
+    // Map by hand: the goals/daily maps are only read by findById
+    private UserAccount toAccount(DocumentSnapshot doc) {
+        UserAccount account = new UserAccount();
+        account.setUid(doc.getId());
+        account.setUsername(doc.getString("username"));
+        account.setEmail(doc.getString("email"));
+        account.setPassword(doc.getString("password"));
+        account.setDisplayName(doc.getString("displayName"));
+        return account;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage-agnostic access to the "friendRequests" collection.
+ */
+public interface FriendRequestRepository {
+
+    List<FriendRequest> findPendingFor(String toUserId) throws ExecutionException, InterruptedException;
+
+    // Pass a null status to match requests in any state
+    boolean exists(String fromUserId, String toUserId, String status) throws ExecutionException, InterruptedException;
+
+    // Assigns an id to the request when it does not have one yet
+    void save(FriendRequest request) throws ExecutionException, InterruptedException;
+
+    void updateStatus(String requestId, String status) throws ExecutionException, InterruptedException;
+}
@@ -8,9 +8,6 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.DocumentSnapshot;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,22 +40,17 @@ public class FriendRequestsController {
         new Thread(() -> {
             try {
                 // Load pending friend requests for current user
-                QuerySnapshot reqSnapshot = FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .whereEqualTo("toUserId", userId)
-                        .whereEqualTo("status", "pending")
-                        .get()
-                        .get();
+                List<FriendRequest> pending = Repositories.friendRequests().findPendingFor(userId);
 
                 List<String> requestIds = new ArrayList<>();
                 List<String> fromUserIds = new ArrayList<>();
                 List<String> fromUsernames = new ArrayList<>();
 
-                for (QueryDocumentSnapshot doc : reqSnapshot.getDocuments()) {
-                    String fromId = doc.getString("fromUserId");
-                    String fromName = doc.getString("fromUsername");
+                for (FriendRequest request : pending) {
+                    String fromId = request.getFromUserId();
+                    String fromName = request.getFromUsername();
                     if (fromId != null) {
-                        requestIds.add(doc.getId());
+                        requestIds.add(request.getId());
                         fromUserIds.add(fromId);
                         fromUsernames.add(fromName != null ? fromName : fromId);
                     }
@@ -113,23 +105,10 @@ public class FriendRequestsController {
         new Thread(() -> {
             try {
                 // Update friend request status to accepted
-                FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .document(requestId)
-                        .update("status", "accepted")
-                        .get();
+                Repositories.friendRequests().updateStatus(requestId, "accepted");
 
                 // Create friendship record
-                java.util.Map<String, Object> friendship = new java.util.HashMap<>();
-                friendship.put("user1", fromUserId);
-                friendship.put("user2", userId);
-                friendship.put("createdAt", com.google.cloud.Timestamp.now());
-
-                FirestoreContext.getFirestore()
-                        .collection("friendships")
-                        .document()
-                        .set(friendship)
-                        .get();
+                Repositories.friendships().add(fromUserId, userId);
 
                 Platform.runLater(() -> {
                     showAlert("Friend Added", "You are now friends with " + fromUsername + "!");
@@ -146,11 +125,7 @@ public class FriendRequestsController {
         new Thread(() -> {
             try {
                 // Update friend request status to declined
-                FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .document(requestId)
-                        .update("status", "declined")
-                        .get();
+                Repositories.friendRequests().updateStatus(requestId, "declined");
 
                 Platform.runLater(() -> {
                     requestsContainer.getChildren().remove(card);
@@ -9,13 +9,18 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class FriendsController {
 
+    // Best matches shown for a username search
+    private static final int SEARCH_LIMIT = 50;
+
     @FXML private TextField searchField;
     @FXML private VBox usersContainer;
     @FXML private VBox friendsContainer;
@@ -24,7 +29,7 @@ public class FriendsController {
 
     private MainApp mainApp;
     private String userId;
-    private List<String> currentFriendIds = new ArrayList<>();
+    private final Set<String> currentFriendIds = new HashSet<>();
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -46,114 +51,74 @@ public class FriendsController {
         usersContainer.getChildren().add(loading);
         friendsContainer.getChildren().add(new Label("Loading friends..."));
 
-        new Thread(() -> {
+        // Friends come from the user's own friend index; the user list loads next to it
+        CompletableFuture<List<UserAccount>> friendsFuture = CompletableFuture.supplyAsync(() -> {
             try {
-                // Load all users (for friend list)
-                QuerySnapshot usersSnapshot = FirestoreContext.getFirestore()
-                        .collection("users")
-                        .get()
-                        .get();
-
-                List<String> allUserIds = new ArrayList<>();
-                List<String> allUsernames = new ArrayList<>();
-                currentFriendIds.clear();
-                List<String> friendUserIds = new ArrayList<>();
-                List<String> friendUsernames = new ArrayList<>();
-
-                for (QueryDocumentSnapshot doc : usersSnapshot.getDocuments()) {
-                    String uid = doc.getId();
-                    String username = doc.getString("username");
-
-                    // Skip current user
-                    if (!uid.equals(userId)) {
-                        allUserIds.add(uid);
-                        allUsernames.add(username != null ? username : uid);
-                    }
-                }
-
-                // Load existing friends
-                try {
-                    QuerySnapshot friendsSnapshot = FirestoreContext.getFirestore()
-                            .collection("friendships")
-                            .whereEqualTo("user1", userId)
-                            .get()
-                            .get();
-
-                    for (QueryDocumentSnapshot doc : friendsSnapshot.getDocuments()) {
-                        String user2 = doc.getString("user2");
-                        if (user2 != null && !currentFriendIds.contains(user2)) {
-                            currentFriendIds.add(user2);
-                        }
-                    }
-
-                    friendsSnapshot = FirestoreContext.getFirestore()
-                            .collection("friendships")
-                            .whereEqualTo("user2", userId)
-                            .get()
-                            .get();
-
-                    for (QueryDocumentSnapshot doc : friendsSnapshot.getDocuments()) {
-                        String user1 = doc.getString("user1");
-                        if (user1 != null && !currentFriendIds.contains(user1)) {
-                            currentFriendIds.add(user1);
-                        }
-                    }
+                return UserDirectory.shared().findByIds(Repositories.friendships().findFriendIds(userId));
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.io());
+        CompletableFuture<List<UserAccount>> usersFuture = CompletableFuture.supplyAsync(() -> {
+            try {
+                return UserDirectory.shared().all();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.io());
+
+        friendsFuture.whenComplete((friends, error) -> Platform.runLater(() -> {
+            friendsContainer.getChildren().clear();
+            if (error != null) {
+                System.err.println("Error loading friendships: " + error.getMessage());
+                friendsContainer.getChildren().add(new Label("Error loading friends."));
+                return;
+            }
+            currentFriendIds.clear();
+            for (UserAccount friend : friends) {
+                currentFriendIds.add(friend.getUid());
+            }
 
-                    // Get friend usernames
-                    for (int i = 0; i < allUserIds.size(); i++) {
-                        if (currentFriendIds.contains(allUserIds.get(i))) {
-                            friendUserIds.add(allUserIds.get(i));
-                            friendUsernames.add(allUsernames.get(i));
-                        }
-                    }
-                } catch (Exception ex) {
-                    System.err.println("Error loading friendships: " + ex.getMessage());
+            // Display friends section
+            if (friends.isEmpty()) {
+                friendsContainer.getChildren().add(new Label("You have no friends yet."));
+                friendsCountLabel.setText("0 friends");
+            } else {
+                for (UserAccount friend : friends) {
+                    friendsContainer.getChildren().add(createFriendCard(friend.getUid(), displayName(friend)));
                 }
+                friendsCountLabel.setText(friends.size() + " friend" + (friends.size() != 1 ? "s" : ""));
+            }
+        }));
 
-                final List<String> finalUserIds = allUserIds;
-                final List<String> finalUsernames = allUsernames;
-                final List<String> finalFriendUserIds = friendUserIds;
-                final List<String> finalFriendUsernames = friendUsernames;
-
-                Platform.runLater(() -> {
+        // User cards show the friend state, so they wait for both
+        usersFuture.thenCombine(friendsFuture.exceptionally(error -> List.of()), (users, friends) -> users)
+                .whenComplete((users, error) -> Platform.runLater(() -> {
                     usersContainer.getChildren().clear();
-                    friendsContainer.getChildren().clear();
-
-                    // Display friends section
-                    if (finalFriendUserIds.isEmpty()) {
-                        friendsContainer.getChildren().add(new Label("You have no friends yet."));
-                        friendsCountLabel.setText("0 friends");
-                    } else {
-                        for (int i = 0; i < finalFriendUserIds.size(); i++) {
-                            String uid = finalFriendUserIds.get(i);
-                            String username = finalFriendUsernames.get(i);
-                            friendsContainer.getChildren().add(createFriendCard(uid, username));
-                        }
-                        friendsCountLabel.setText(finalFriendUserIds.size() + " friend" + (finalFriendUserIds.size() != 1 ? "s" : ""));
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        cause.printStackTrace();
+                        usersContainer.getChildren().add(new Label("Error loading users: " + cause.getMessage()));
+                        return;
                     }
 
                     // Display users section
-                    if (finalUserIds.isEmpty()) {
+                    int count = 0;
+                    for (UserAccount user : users) {
+                        // Skip current user
+                        if (user.getUid().equals(userId)) continue;
+                        usersContainer.getChildren().add(createUserCard(user.getUid(), displayName(user)));
+                        count++;
+                    }
+                    if (count == 0) {
                         usersContainer.getChildren().add(new Label("No other users available."));
-                        usersCountLabel.setText("0 users");
-                    } else {
-                        for (int i = 0; i < finalUserIds.size(); i++) {
-                            String uid = finalUserIds.get(i);
-                            String username = finalUsernames.get(i);
-                            usersContainer.getChildren().add(createUserCard(uid, username));
-                        }
-                        usersCountLabel.setText(finalUserIds.size() + " user" + (finalUserIds.size() != 1 ? "s" : ""));
                     }
-                });
+                    usersCountLabel.setText(count + " user" + (count != 1 ? "s" : ""));
+                }));
+    }
 
-            } catch (Exception e) {
-                e.printStackTrace();
-                Platform.runLater(() -> {
-                    usersContainer.getChildren().clear();
-                    usersContainer.getChildren().add(new Label("Error loading users: " + e.getMessage()));
-                });
-            }
-        }).start();
+    private static String displayName(UserAccount user) {
+        return user.getUsername() != null ? user.getUsername() : user.getUid();
     }
 
     @FXML
@@ -169,39 +134,22 @@ public class FriendsController {
         Label searching = new Label("Searching...");
         usersContainer.getChildren().add(searching);
 
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
-                QuerySnapshot usersSnapshot = FirestoreContext.getFirestore()
-                        .collection("users")
-                        .get()
-                        .get();
-
-                List<String> matchIds = new ArrayList<>();
-                List<String> matchNames = new ArrayList<>();
-
-                for (QueryDocumentSnapshot doc : usersSnapshot.getDocuments()) {
-                    String uid = doc.getId();
-                    String username = doc.getString("username");
-
-                    if (!uid.equals(userId) && username != null && username.toLowerCase().contains(query)) {
-                        matchIds.add(uid);
-                        matchNames.add(username);
-                    }
-                }
-
-                final List<String> finalIds = matchIds;
-                final List<String> finalNames = matchNames;
+                List<UsernameIndex.Match> matches = UserDirectory.shared().search(query, SEARCH_LIMIT, userId);
 
                 Platform.runLater(() -> {
+                    // A newer keystroke has already replaced this query
+                    if (!query.equals(searchField.getText().trim().toLowerCase())) return;
                     usersContainer.getChildren().clear();
-                    if (finalIds.isEmpty()) {
+                    if (matches.isEmpty()) {
                         usersContainer.getChildren().add(new Label("No users found matching: " + query));
                         usersCountLabel.setText("0 results");
                     } else {
-                        for (int i = 0; i < finalIds.size(); i++) {
-                            usersContainer.getChildren().add(createUserCard(finalIds.get(i), finalNames.get(i)));
+                        for (UsernameIndex.Match match : matches) {
+                            usersContainer.getChildren().add(createUserCard(match.uid(), match.username()));
                         }
-                        usersCountLabel.setText(finalIds.size() + " result" + (finalIds.size() != 1 ? "s" : ""));
+                        usersCountLabel.setText(matches.size() + " result" + (matches.size() != 1 ? "s" : ""));
                     }
                 });
 
@@ -212,7 +160,7 @@ public class FriendsController {
                     usersContainer.getChildren().add(new Label("Error searching: " + e.getMessage()));
                 });
             }
-        }).start();
+        });
     }
 
     private HBox createFriendCard(String friendUserId, String friendUsername) {
@@ -240,38 +188,10 @@ public class FriendsController {
             return;
         }
 
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
                 // Find and delete friendship records
-                QuerySnapshot friendships1 = FirestoreContext.getFirestore()
-                        .collection("friendships")
-                        .whereEqualTo("user1", userId)
-                        .whereEqualTo("user2", friendUserId)
-                        .get()
-                        .get();
-
-                for (QueryDocumentSnapshot doc : friendships1.getDocuments()) {
-                    FirestoreContext.getFirestore()
-                            .collection("friendships")
-                            .document(doc.getId())
-                            .delete()
-                            .get();
-                }
-
-                QuerySnapshot friendships2 = FirestoreContext.getFirestore()
-                        .collection("friendships")
-                        .whereEqualTo("user1", friendUserId)
-                        .whereEqualTo("user2", userId)
-                        .get()
-                        .get();
-
-                for (QueryDocumentSnapshot doc : friendships2.getDocuments()) {
-                    FirestoreContext.getFirestore()
-                            .collection("friendships")
-                            .document(doc.getId())
-                            .delete()
-                            .get();
-                }
+                Repositories.friendships().remove(userId, friendUserId);
 
                 Platform.runLater(() -> {
                     showAlert("Friend Removed", friendUsername + " has been removed from your friends.");
@@ -281,7 +201,7 @@ public class FriendsController {
                 e.printStackTrace();
                 Platform.runLater(() -> showAlert("Error", "Failed to remove friend: " + e.getMessage()));
             }
-        }).start();
+        });
     }
 
     private HBox createUserCard(String targetUserId, String targetUsername) {
@@ -310,49 +230,23 @@ public class FriendsController {
     }
 
     private void handleAddFriend(String targetUserId, String targetUsername) {
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
                 // Check if there's already a pending friend request between these two users
-                QuerySnapshot existingRequests = FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .whereEqualTo("fromUserId", userId)
-                        .whereEqualTo("toUserId", targetUserId)
-                        .whereEqualTo("status", "pending")
-                        .get()
-                        .get();
-
-                if (!existingRequests.isEmpty()) {
+                if (Repositories.friendRequests().exists(userId, targetUserId, "pending")) {
                     Platform.runLater(() -> showAlert("Already Sent", "You already sent a friend request to " + targetUsername));
                     return;
                 }
 
                 // Check if they're already friends
-                QuerySnapshot existingFriendship1 = FirestoreContext.getFirestore()
-                        .collection("friendships")
-                        .whereEqualTo("user1", userId)
-                        .whereEqualTo("user2", targetUserId)
-                        .get()
-                        .get();
-
-                QuerySnapshot existingFriendship2 = FirestoreContext.getFirestore()
-                        .collection("friendships")
-                        .whereEqualTo("user1", targetUserId)
-                        .whereEqualTo("user2", userId)
-                        .get()
-                        .get();
-
-                if (!existingFriendship1.isEmpty() || !existingFriendship2.isEmpty()) {
+                if (Repositories.friendships().areFriends(userId, targetUserId)) {
                     Platform.runLater(() -> showAlert("Already Friends", "You are already friends with " + targetUsername));
                     return;
                 }
 
                 // Create friend request
                 FriendRequest req = new FriendRequest(userId, null, targetUserId, targetUsername);
-                FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .document()
-                        .set(req)
-                        .get();
+                Repositories.friendRequests().save(req);
 
                 Platform.runLater(() -> {
                     showAlert("Friend Request Sent", "Friend request sent to " + targetUsername + "!");
@@ -362,7 +256,7 @@ public class FriendsController {
                 e.printStackTrace();
                 Platform.runLater(() -> showAlert("Error", "Failed to send friend request: " + e.getMessage()));
             }
-        }).start();
+        });
     }
 
     @FXML
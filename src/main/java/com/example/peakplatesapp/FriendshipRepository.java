@@ -0,0 +1,20 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage-agnostic access to the "friendships" collection.
+ * A friendship is stored once (user1, user2) but is symmetric for every method here.
+ */
+public interface FriendshipRepository {
+
+    List<String> findFriendIds(String userId) throws ExecutionException, InterruptedException;
+
+    boolean areFriends(String userA, String userB) throws ExecutionException, InterruptedException;
+
+    void add(String user1, String user2) throws ExecutionException, InterruptedException;
+
+    // Removes the friendship regardless of which side created it
+    void remove(String userA, String userB) throws ExecutionException, InterruptedException;
+}
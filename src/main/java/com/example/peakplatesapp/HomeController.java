@@ -1,6 +1,5 @@
 package com.example.peakplatesapp;
 
-import com.google.cloud.firestore.DocumentSnapshot;
 import javafx.application.Platform;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.binding.StringBinding;
@@ -91,38 +90,30 @@ public class HomeController {
             return;
         }
 
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
-                DocumentSnapshot doc = FirestoreContext.getFirestore()
-                        .collection("users")
-                        .document(userId)
-                        .get()
-                        .get();
+                UserAccount account = Repositories.users().findById(userId);
 
-                if (!doc.exists()) {
+                if (account == null) {
                     Platform.runLater(() -> welcomeLabel.setText("Welcome!"));
                     return;
                 }
 
                 // Username
-                if (username == null) username = doc.getString("username");
+                if (username == null) username = account.getUsername();
                 final String finalUsername = username;
 
                 // Goals
-                Map<String, Object> goalsMap = (Map<String, Object>) doc.get("goals");
+                Map<String, Object> goalsMap = account.getGoals();
                 int gCal = goalsMap != null && goalsMap.get("calories") != null ? ((Number) goalsMap.get("calories")).intValue() : 0;
                 int gProt = goalsMap != null && goalsMap.get("protein") != null ? ((Number) goalsMap.get("protein")).intValue() : 0;
                 int gCarb = goalsMap != null && goalsMap.get("carbs") != null ? ((Number) goalsMap.get("carbs")).intValue() : 0;
                 int gFat = goalsMap != null && goalsMap.get("fats") != null ? ((Number) goalsMap.get("fats")).intValue() : 0;
 
                 // Daily logs
-                Map<String, Object> dailyLogs = (Map<String, Object>) doc.get("daily");
+                Map<String, Map<String, Object>> dailyLogs = account.getDailyLogs();
                 if (dailyLogs != null) {
-                    for (Map.Entry<String, Object> entry : dailyLogs.entrySet()) {
-                        String date = entry.getKey();
-                        Map<String, Object> values = (Map<String, Object>) entry.getValue();
-                        dailyLogsCache.put(date, values);
-                    }
+                    dailyLogsCache.putAll(dailyLogs);
                 }
 
                 Platform.runLater(() -> {
@@ -140,7 +131,7 @@ public class HomeController {
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private void bindProgressBar(ProgressBar bar, Label label,
@@ -216,21 +207,13 @@ public class HomeController {
                 dailyConsumed.put("fats", ((Number) dailyConsumed.getOrDefault("fats", 0)).intValue() + addFat);
                 dailyLogsCache.put(date, dailyConsumed);
 
-                // Update Firestore
-                new Thread(() -> {
+                // Save the day's new totals; a copy, since later meals keep changing the cached map
+                Map<String, Object> totals = new HashMap<>(dailyConsumed);
+                AppExecutors.io().execute(() -> {
                     try {
-                        Map<String, Object> updateMap = new HashMap<>();
-                        updateMap.put("daily." + date + ".calories", dailyConsumed.get("calories"));
-                        updateMap.put("daily." + date + ".protein", dailyConsumed.get("protein"));
-                        updateMap.put("daily." + date + ".carbs", dailyConsumed.get("carbs"));
-                        updateMap.put("daily." + date + ".fats", dailyConsumed.get("fats"));
-                        FirestoreContext.getFirestore()
-                                .collection("users")
-                                .document(userId)
-                                .update(updateMap)
-                                .get();
+                        Repositories.users().saveDailyLog(userId, date, totals);
                     } catch (Exception ex) { ex.printStackTrace(); }
-                }).start();
+                });
 
                 Platform.runLater(() -> updateConsumedValuesForDate(date));
                 dialog.close();
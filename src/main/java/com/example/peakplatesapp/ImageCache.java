@@ -0,0 +1,129 @@
+package com.example.peakplatesapp;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Decoded recipe images shared by every screen, keyed by recipe id and display width.
+ * Least recently used entries are evicted once the decoded pixels (width x height x 4 bytes)
+ * exceed the budget, so going back and forth between screens does not decode again.
+ */
+public final class ImageCache {
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final ImageCache SHARED = new ImageCache(DEFAULT_MAX_BYTES);
+
+    // Where to get the encoded bytes on a miss, e.g. () -> RecipeImages.loadThumbnail(summary)
+    public interface ImageSource {
+        byte[] load() throws IOException, ExecutionException, InterruptedException;
+    }
+
+    private record Key(String recipeId, int width) {
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    public synchronized Image get(String recipeId, int width) {
+        Image image = images.get(new Key(recipeId, width));
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    public synchronized void put(String recipeId, int width, Image image) {
+        Image previous = images.put(new Key(recipeId, width), image);
+        if (previous != null) currentBytes -= sizeOf(previous);
+        currentBytes += sizeOf(image);
+        trim();
+    }
+
+    /**
+     * Returns the cached image or loads, decodes and caches it. Blocking; call off the FX thread.
+     * @return the image, or null when there is none or it cannot be decoded
+     */
+    public Image getOrLoad(String recipeId, int width, ImageSource source)
+            throws IOException, ExecutionException, InterruptedException {
+        Image image = get(recipeId, width);
+        if (image != null) return image;
+
+        byte[] bytes = source.load();
+        if (bytes == null || bytes.length == 0) return null;
+        return decodeAndPut(recipeId, width, bytes);
+    }
+
+    // Decodes at the display width and caches the result; null if the bytes cannot be decoded
+    public Image decodeAndPut(String recipeId, int width, byte[] bytes) {
+        Image image = ImageDecoder.decode(bytes, width);
+        if (image != null) put(recipeId, width, image);
+        return image;
+    }
+
+    // Drops every cached size of a recipe
+    public synchronized void invalidate(String recipeId) {
+        Iterator<Map.Entry<Key, Image>> it = images.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Image> entry = it.next();
+            if (entry.getKey().recipeId().equals(recipeId)) {
+                currentBytes -= sizeOf(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long sizeBytes() {
+        return currentBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ImageCache[%d images, %.1f/%.1f MB, hits=%d, misses=%d, evictions=%d]",
+                images.size(), currentBytes / (1024.0 * 1024.0), maxBytes / (1024.0 * 1024.0), hits, misses, evictions);
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Key, Image>> it = images.entrySet().iterator();
+        // Keep at least the newest entry even if it alone exceeds the budget
+        while (currentBytes > maxBytes && images.size() > 1 && it.hasNext()) {
+            Map.Entry<Key, Image> eldest = it.next();
+            currentBytes -= sizeOf(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
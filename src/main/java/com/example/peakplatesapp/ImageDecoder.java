@@ -0,0 +1,107 @@
+package com.example.peakplatesapp;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+/**
+ * Decodes image bytes entirely in memory. The format is sniffed from the magic bytes;
+ * formats JavaFX can read go through JavaFX first, anything it rejects (or cannot read,
+ * such as TIFF) falls back to ImageIO and is copied into a WritableImage.
+ */
+public final class ImageDecoder {
+
+    public enum Format {
+        JPEG(true), PNG(true), GIF(true), BMP(true), TIFF(false), WEBP(false), UNKNOWN(false);
+
+        private final boolean javaFxSupported;
+
+        Format(boolean javaFxSupported) {
+            this.javaFxSupported = javaFxSupported;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private ImageDecoder() {
+    }
+
+    /**
+     * Decodes at the requested width (height follows the aspect ratio; 0 keeps the original size).
+     * @return the image, or null if no decoder can read the bytes
+     */
+    public static Image decode(byte[] bytes, int width) {
+        if (bytes == null || bytes.length == 0) return null;
+        Format format = sniff(bytes);
+
+        if (format.javaFxSupported) {
+            Image image = new Image(new ByteArrayInputStream(bytes), width, 0, true, true);
+            if (!image.isError() && image.getWidth() > 0) return image;
+        }
+
+        Image image = decodeWithImageIO(bytes, width);
+        if (image == null) {
+            System.err.println("Image decode failed (format " + format + ", " + bytes.length + " bytes)");
+        }
+        return image;
+    }
+
+    public static Format sniff(byte[] b) {
+        if (b.length >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) return Format.JPEG;
+        if (b.length >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G'
+                && b[4] == '\r' && b[5] == '\n' && b[6] == 0x1A && b[7] == '\n') return Format.PNG;
+        if (b.length >= 4 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8') return Format.GIF;
+        if (b.length >= 2 && b[0] == 'B' && b[1] == 'M') return Format.BMP;
+        if (b.length >= 4 && ((b[0] == 'I' && b[1] == 'I' && b[2] == 42 && b[3] == 0)
+                || (b[0] == 'M' && b[1] == 'M' && b[2] == 0 && b[3] == 42))) return Format.TIFF;
+        if (b.length >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') return Format.WEBP;
+        return Format.UNKNOWN;
+    }
+
+    private static Image decodeWithImageIO(byte[] bytes, int width) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (source == null) return null;
+
+            BufferedImage argb = toArgb(source, width);
+            int w = argb.getWidth();
+            int h = argb.getHeight();
+            int[] pixels = argb.getRGB(0, 0, w, h, null, 0, w);
+
+            WritableImage image = new WritableImage(w, h);
+            image.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            return image;
+        } catch (Exception e) {
+            System.err.println("ImageIO decode failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Scales down to the requested width (keeping alpha) so the copy is no larger than displayed
+    private static BufferedImage toArgb(BufferedImage source, int width) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        if (width > 0 && width < w) {
+            h = Math.max(1, (int) Math.round(h * (double) width / w));
+            w = width;
+        } else if (source.getType() == BufferedImage.TYPE_INT_ARGB) {
+            return source;
+        }
+
+        BufferedImage argb = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = argb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return argb;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.peakplatesapp;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Fills ImageViews without blocking the FX thread. A placeholder is shown at once, the bytes
+ * are fetched on the I/O pool and decoded at the display width on the compute pool, and the
+ * result is swapped in on the FX thread. A pending load is cancelled when the view is given
+ * another image or removed from the scene, e.g. when a list is cleared and rebuilt.
+ */
+public final class ImageLoader {
+    private static final String PENDING_KEY = "peakplates.pendingImage";
+    private static final String WATCHED_KEY = "peakplates.sceneWatched";
+    private static final Map<Integer, Image> PLACEHOLDERS = new HashMap<>();
+
+    // Private constructor to prevent instantiation
+    private ImageLoader() {
+    }
+
+    // Call on the FX thread
+    public static void load(ImageView view, String recipeId, int width, ImageCache.ImageSource source) {
+        cancel(view);
+
+        Image cached = ImageCache.shared().get(recipeId, width);
+        if (cached != null) {
+            view.setImage(cached);
+            return;
+        }
+        view.setImage(placeholder(width));
+        watchScene(view);
+
+        CompletableFuture<byte[]> fetch = CompletableFuture.supplyAsync(() -> {
+            try {
+                return source.load();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.io());
+        CompletableFuture<Image> decode = fetch.thenApplyAsync(bytes ->
+                bytes != null && bytes.length > 0 ? ImageCache.shared().decodeAndPut(recipeId, width, bytes) : null,
+                AppExecutors.compute());
+        view.getProperties().put(PENDING_KEY, new Pending(fetch, decode));
+
+        decode.whenComplete((image, error) -> Platform.runLater(() -> {
+            Object pending = view.getProperties().get(PENDING_KEY);
+            // A newer load (or a cancel) has replaced this one
+            if (!(pending instanceof Pending p) || p.decode() != decode) return;
+            view.getProperties().remove(PENDING_KEY);
+
+            if (error != null) {
+                if (!decode.isCancelled()) {
+                    System.err.println("Image load failed for recipe " + recipeId + ": " + error.getMessage());
+                }
+                return;
+            }
+            // Leave the placeholder when the recipe has no image
+            if (image != null) view.setImage(image);
+        }));
+    }
+
+    // Abandons a pending load; stages that have not started yet never run
+    public static void cancel(ImageView view) {
+        Object pending = view.getProperties().remove(PENDING_KEY);
+        if (pending instanceof Pending p) {
+            p.fetch().cancel(false);
+            p.decode().cancel(false);
+        }
+    }
+
+    private static void watchScene(ImageView view) {
+        if (view.getProperties().containsKey(WATCHED_KEY)) return;
+        view.getProperties().put(WATCHED_KEY, Boolean.TRUE);
+        view.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) cancel(view);
+        });
+    }
+
+    // Flat grey box with a typical 3:2 photo shape, shared per width
+    private static Image placeholder(int width) {
+        return PLACEHOLDERS.computeIfAbsent(width, w -> {
+            int height = w * 2 / 3;
+            WritableImage image = new WritableImage(w, height);
+            PixelWriter writer = image.getPixelWriter();
+            Color fill = Color.web("#eeeeee");
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < w; x++) {
+                    writer.setColor(x, y, fill);
+                }
+            }
+            return image;
+        });
+    }
+
+    private record Pending(CompletableFuture<byte[]> fetch, CompletableFuture<Image> decode) {
+    }
+}
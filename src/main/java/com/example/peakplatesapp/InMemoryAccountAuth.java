@@ -0,0 +1,28 @@
+package com.example.peakplatesapp;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * {@link AccountAuth} for the in-memory backend. The users repository is the only account store,
+ * so the password check in the login screen is all the verification there is.
+ */
+public class InMemoryAccountAuth implements AccountAuth {
+    private final InMemoryUserRepository users;
+
+    public InMemoryAccountAuth(InMemoryUserRepository users) {
+        this.users = users;
+    }
+
+    @Override
+    public String createUser(String email, String password, String displayName) {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public Future<String> lookupUid(String email) {
+        UserAccount account = users.findByEmail(email);
+        return CompletableFuture.completedFuture(account != null ? account.getUid() : null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryFriendRequestRepository implements FriendRequestRepository {
+
+    private final Map<String, FriendRequest> requests = new ConcurrentHashMap<>();
+
+    @Override
+    public List<FriendRequest> findPendingFor(String toUserId) {
+        List<FriendRequest> result = new ArrayList<>();
+        for (FriendRequest request : requests.values()) {
+            if (toUserId.equals(request.getToUserId()) && "pending".equals(request.getStatus())) {
+                result.add(request);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean exists(String fromUserId, String toUserId, String status) {
+        for (FriendRequest request : requests.values()) {
+            if (fromUserId.equals(request.getFromUserId())
+                    && toUserId.equals(request.getToUserId())
+                    && (status == null || status.equals(request.getStatus()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void save(FriendRequest request) {
+        if (request.getId() == null) {
+            request.setId(UUID.randomUUID().toString());
+        }
+        requests.put(request.getId(), request);
+    }
+
+    @Override
+    public void updateStatus(String requestId, String status) {
+        FriendRequest request = requests.get(requestId);
+        if (request != null) {
+            request.setStatus(status);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Friendships held as an adjacency map; both directions are recorded on add.
+ */
+public class InMemoryFriendshipRepository implements FriendshipRepository {
+
+    private final Map<String, Set<String>> friendsByUser = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> findFriendIds(String userId) {
+        Set<String> friends = friendsByUser.get(userId);
+        return friends != null ? new ArrayList<>(friends) : new ArrayList<>();
+    }
+
+    @Override
+    public boolean areFriends(String userA, String userB) {
+        Set<String> friends = friendsByUser.get(userA);
+        return friends != null && friends.contains(userB);
+    }
+
+    @Override
+    public void add(String user1, String user2) {
+        friendsByUser.computeIfAbsent(user1, k -> ConcurrentHashMap.newKeySet()).add(user2);
+        friendsByUser.computeIfAbsent(user2, k -> ConcurrentHashMap.newKeySet()).add(user1);
+    }
+
+    @Override
+    public void remove(String userA, String userB) {
+        Set<String> friendsOfA = friendsByUser.get(userA);
+        if (friendsOfA != null) friendsOfA.remove(userB);
+        Set<String> friendsOfB = friendsByUser.get(userB);
+        if (friendsOfB != null) friendsOfB.remove(userA);
+    }
+}
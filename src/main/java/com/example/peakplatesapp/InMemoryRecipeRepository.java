@@ -0,0 +1,278 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Recipe store held entirely in memory, for offline runs and load tests.
+ * Recipes are copied on the way in and out so callers cannot mutate stored state
+ * without going through the repository, the same as with Firestore.
+ */
+public class InMemoryRecipeRepository implements RecipeRepository {
+
+    // Sorted by id, matching Firestore's default ordering for unordered queries
+    private final Map<String, Recipe> recipes = new ConcurrentSkipListMap<>();
+
+    // Feed order (newest first, id as tie-breaker) so paging never sorts the whole store
+    private static final Comparator<FeedKey> FEED_ORDER = Comparator.comparingLong(FeedKey::timestamp).reversed()
+            .thenComparing(FeedKey::id, Comparator.reverseOrder());
+    private final NavigableSet<FeedKey> feedOrder = new ConcurrentSkipListSet<>(FEED_ORDER);
+
+    // Per-user favorites in feed order, the in-memory counterpart of the array-contains index
+    private final Map<String, NavigableSet<FeedKey>> favoritesByUser = new ConcurrentHashMap<>();
+
+    @Override
+    public String newId() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+    }
+
+    @Override
+    public Recipe findById(String id) {
+        Recipe recipe = recipes.get(id);
+        return recipe != null ? copy(recipe) : null;
+    }
+
+    @Override
+    public List<Recipe> findAll() {
+        List<Recipe> result = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            result.add(copy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<RecipeSummary> findPage(int limit, RecipeSummary after) {
+        return page(feedOrder, limit, after);
+    }
+
+    @Override
+    public List<RecipeSummary> findFavoritedBy(String userId, int limit, RecipeSummary after) {
+        NavigableSet<FeedKey> favorites = favoritesByUser.get(userId);
+        return favorites != null ? page(favorites, limit, after) : new ArrayList<>();
+    }
+
+    private List<RecipeSummary> page(NavigableSet<FeedKey> order, int limit, RecipeSummary after) {
+        NavigableSet<FeedKey> keys = after != null
+                ? order.tailSet(new FeedKey(after.getTimestamp(), after.getId()), false)
+                : order;
+
+        List<RecipeSummary> result = new ArrayList<>();
+        for (FeedKey key : keys) {
+            if (result.size() >= limit) break;
+            Recipe recipe = recipes.get(key.id());
+            if (recipe != null) result.add(RecipeSummary.of(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> findLikedIds(String userId) {
+        Set<String> ids = new HashSet<>();
+        for (Recipe recipe : recipes.values()) {
+            if (recipe.getLikedByUsers() != null && recipe.getLikedByUsers().contains(userId)) {
+                ids.add(recipe.getId());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> findFavoritedIds(String userId) {
+        Set<String> ids = new HashSet<>();
+        NavigableSet<FeedKey> favorites = favoritesByUser.get(userId);
+        if (favorites != null) {
+            for (FeedKey key : favorites) ids.add(key.id());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Recipe> findByIds(List<String> ids) {
+        List<Recipe> result = new ArrayList<>();
+        for (String id : ids) {
+            Recipe recipe = recipes.get(id);
+            if (recipe != null) result.add(copy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<RecipeSummary> findSummariesByIds(List<String> ids) {
+        List<RecipeSummary> result = new ArrayList<>();
+        for (String id : ids) {
+            Recipe recipe = recipes.get(id);
+            if (recipe != null) result.add(RecipeSummary.of(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Recipe> findTextByIds(List<String> ids) {
+        List<Recipe> result = new ArrayList<>();
+        for (String id : ids) {
+            Recipe stored = recipes.get(id);
+            if (stored == null) continue;
+            Recipe text = new Recipe();
+            text.setId(id);
+            text.setIngredients(stored.getIngredients());
+            text.setSteps(stored.getSteps());
+            result.add(text);
+        }
+        return result;
+    }
+
+    @Override
+    public byte[] findImageData(String id) {
+        Recipe recipe = recipes.get(id);
+        return recipe != null && recipe.getImageData() != null ? recipe.getImageData().toBytes() : null;
+    }
+
+    @Override
+    public void save(Recipe recipe) {
+        if (recipe.getId() == null) {
+            recipe.setId(newId());
+        }
+        Recipe previous = recipes.put(recipe.getId(), copy(recipe));
+        if (previous != null) {
+            feedOrder.remove(new FeedKey(previous.getTimestamp(), previous.getId()));
+        }
+        feedOrder.add(new FeedKey(recipe.getTimestamp(), recipe.getId()));
+        reindexFavorites(previous, recipe);
+    }
+
+    @Override
+    public boolean setLiked(String id, String userId, boolean liked) {
+        AtomicBoolean changed = new AtomicBoolean();
+        recipes.computeIfPresent(id, (key, stored) -> {
+            Recipe updated = copy(stored);
+            if (!setMember(updated.getLikedByUsers(), userId, liked)) return stored;
+            updated.setLikes(Math.max(0, updated.getLikes() + (liked ? 1 : -1)));
+            changed.set(true);
+            return updated;
+        });
+        return changed.get();
+    }
+
+    @Override
+    public boolean setFavorited(String id, String userId, boolean favorited) {
+        AtomicBoolean changed = new AtomicBoolean();
+        recipes.computeIfPresent(id, (key, stored) -> {
+            Recipe updated = copy(stored);
+            if (!setMember(updated.getFavoriteByUsers(), userId, favorited)) return stored;
+            updated.setFavorites(Math.max(0, updated.getFavorites() + (favorited ? 1 : -1)));
+            reindexFavorites(stored, updated);
+            changed.set(true);
+            return updated;
+        });
+        return changed.get();
+    }
+
+    @Override
+    public int applyReactions(String userId, List<ReactionChange> changes, Consumer<ReactionChange> onSettled) {
+        int applied = 0;
+        for (ReactionChange change : changes) {
+            boolean changed = change.kind() == ReactionChange.Kind.LIKE
+                    ? setLiked(change.recipeId(), userId, change.member())
+                    : setFavorited(change.recipeId(), userId, change.member());
+            if (changed) applied++;
+            onSettled.accept(change);
+        }
+        return applied;
+    }
+
+    // Adds the user to sharedWith and increments shares; false if it was already shared with them.
+    // Called by InMemorySharedRecipeRepository.share
+    boolean addSharedWith(String id, String userId) {
+        AtomicBoolean changed = new AtomicBoolean();
+        recipes.computeIfPresent(id, (key, stored) -> {
+            Recipe updated = copy(stored);
+            if (!setMember(updated.getSharedWith(), userId, true)) return stored;
+            updated.setShares(updated.getShares() + 1);
+            changed.set(true);
+            return updated;
+        });
+        return changed.get();
+    }
+
+    // Array-union/remove semantics: returns whether the list changed
+    private static boolean setMember(List<String> list, String userId, boolean member) {
+        if (member) {
+            return !list.contains(userId) && list.add(userId);
+        }
+        return list.remove(userId);
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    public void clear() {
+        recipes.clear();
+        feedOrder.clear();
+        favoritesByUser.clear();
+    }
+
+    private void reindexFavorites(Recipe previous, Recipe current) {
+        List<String> before = previous != null && previous.getFavoriteByUsers() != null
+                ? previous.getFavoriteByUsers() : Collections.emptyList();
+        List<String> after = current.getFavoriteByUsers() != null ? current.getFavoriteByUsers() : Collections.emptyList();
+
+        if (previous != null) {
+            FeedKey oldKey = new FeedKey(previous.getTimestamp(), previous.getId());
+            for (String userId : before) {
+                NavigableSet<FeedKey> favorites = favoritesByUser.get(userId);
+                if (favorites != null) favorites.remove(oldKey);
+            }
+        }
+        FeedKey newKey = new FeedKey(current.getTimestamp(), current.getId());
+        for (String userId : after) {
+            favoritesByUser.computeIfAbsent(userId, k -> new ConcurrentSkipListSet<>(FEED_ORDER)).add(newKey);
+        }
+    }
+
+    private record FeedKey(long timestamp, String id) {
+    }
+
+    static Recipe copy(Recipe source) {
+        Recipe copy = new Recipe();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setUsername(source.getUsername());
+        copy.setDescription(source.getDescription());
+        copy.setTitle(source.getTitle());
+        copy.setImagePath(source.getImagePath());
+        copy.setImageData(source.getImageData());
+        copy.setImageRef(source.getImageRef());
+        copy.setThumbnailRef(source.getThumbnailRef());
+        copy.setDetailRef(source.getDetailRef());
+        copy.setSharded(source.isSharded());
+        copy.setIngredients(source.getIngredients());
+        copy.setSteps(source.getSteps());
+        copy.setTimestamp(source.getTimestamp());
+        copy.setLikes(source.getLikes());
+        copy.setFavorites(source.getFavorites());
+        copy.setShares(source.getShares());
+        copy.setLikedByUsers(source.getLikedByUsers() != null ? new ArrayList<>(source.getLikedByUsers()) : new ArrayList<>());
+        copy.setFavoriteByUsers(source.getFavoriteByUsers() != null ? new ArrayList<>(source.getFavoriteByUsers()) : new ArrayList<>());
+        copy.setSharedWith(new ArrayList<>(source.getSharedWith()));
+        copy.setTags(new ArrayList<>(source.getTags()));
+        copy.setCalories(source.getCalories());
+        copy.setProtein(source.getProtein());
+        copy.setCarbs(source.getCarbs());
+        copy.setFats(source.getFats());
+        return copy;
+    }
+}
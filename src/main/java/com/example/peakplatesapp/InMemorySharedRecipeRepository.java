@@ -0,0 +1,58 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+public class InMemorySharedRecipeRepository implements SharedRecipeRepository {
+
+    private final Map<String, SharedRecipe> shares = new ConcurrentHashMap<>();
+    private final InMemoryRecipeRepository recipes;
+
+    public InMemorySharedRecipeRepository(InMemoryRecipeRepository recipes) {
+        this.recipes = recipes;
+    }
+
+    @Override
+    public List<SharedRecipe> findSharedWith(String userId) {
+        List<SharedRecipe> result = new ArrayList<>();
+        for (SharedRecipe share : shares.values()) {
+            if (userId.equals(share.getSharedWith())) {
+                result.add(share);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void save(SharedRecipe share) {
+        if (share.getId() == null) {
+            share.setId(UUID.randomUUID().toString());
+        }
+        shares.put(share.getId(), share);
+    }
+
+    @Override
+    public synchronized boolean share(SharedRecipe share) {
+        share.setId(SharedRecipe.idFor(share.getRecipeId(), share.getSharedWith()));
+        if (shares.containsKey(share.getId())) return false;
+        // Recipients recorded under an older random id are already in sharedWith
+        if (!recipes.addSharedWith(share.getRecipeId(), share.getSharedWith())) return false;
+        shares.put(share.getId(), share);
+        return true;
+    }
+
+    @Override
+    public Map<String, ShareOutcome> shareAll(List<SharedRecipe> shares, IntConsumer onProgress) {
+        Map<String, ShareOutcome> outcomes = new LinkedHashMap<>();
+        for (SharedRecipe share : shares) {
+            outcomes.put(share.getSharedWith(), share(share) ? ShareOutcome.SHARED : ShareOutcome.ALREADY_SHARED);
+            onProgress.accept(outcomes.size());
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, UserAccount> users = new ConcurrentSkipListMap<>();
+    private final Map<String, String> uidByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public UserAccount findById(String uid) {
+        UserAccount user = users.get(uid);
+        if (user == null) return null;
+        UserAccount copy = copy(user);
+        synchronized (this) {
+            if (user.getGoals() != null) copy.setGoals(new HashMap<>(user.getGoals()));
+            if (user.getDailyLogs() != null) {
+                Map<String, Map<String, Object>> dailyLogs = new HashMap<>();
+                user.getDailyLogs().forEach((date, totals) -> dailyLogs.put(date, new HashMap<>(totals)));
+                copy.setDailyLogs(dailyLogs);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public List<UserAccount> findAll() {
+        List<UserAccount> result = new ArrayList<>();
+        for (UserAccount user : users.values()) {
+            result.add(copy(user));
+        }
+        return result;
+    }
+
+    @Override
+    public List<UserAccount> findByIds(List<String> uids) {
+        List<UserAccount> result = new ArrayList<>();
+        for (String uid : uids) {
+            UserAccount user = users.get(uid);
+            if (user != null) result.add(copy(user));
+        }
+        return result;
+    }
+
+    // No change times are kept here, so every user is reported
+    @Override
+    public List<UserAccount> findProfiles(long changedAfterMillis) {
+        List<UserAccount> result = new ArrayList<>();
+        for (UserAccount user : users.values()) {
+            UserAccount profile = copy(user);
+            profile.setPassword(null);
+            result.add(profile);
+        }
+        return result;
+    }
+
+    @Override
+    public UserAccount findByEmail(String email) {
+        String uid = uidByEmail.get(email);
+        return uid != null ? findById(uid) : null;
+    }
+
+    @Override
+    public synchronized void save(UserAccount user) {
+        UserAccount stored = copy(user);
+        UserAccount previous = users.put(user.getUid(), stored);
+        if (previous != null) {
+            // Like the Firestore merge, a profile save keeps the stored goals and daily logs
+            stored.setGoals(previous.getGoals());
+            stored.setDailyLogs(previous.getDailyLogs());
+        }
+        if (previous != null && previous.getEmail() != null) {
+            uidByEmail.remove(previous.getEmail());
+        }
+        if (user.getEmail() != null) {
+            uidByEmail.put(user.getEmail(), user.getUid());
+        }
+    }
+
+    @Override
+    public synchronized void saveGoals(String uid, Map<String, Object> goals) {
+        UserAccount user = users.get(uid);
+        if (user == null) throw new IllegalArgumentException("No user " + uid);
+        user.setGoals(new HashMap<>(goals));
+    }
+
+    @Override
+    public synchronized void saveDailyLog(String uid, String date, Map<String, Object> totals) {
+        UserAccount user = users.get(uid);
+        if (user == null) throw new IllegalArgumentException("No user " + uid);
+        if (user.getDailyLogs() == null) user.setDailyLogs(new HashMap<>());
+        user.getDailyLogs().put(date, new HashMap<>(totals));
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    private static UserAccount copy(UserAccount source) {
+        UserAccount copy = new UserAccount();
+        copy.setUid(source.getUid());
+        copy.setUsername(source.getUsername());
+        copy.setEmail(source.getEmail());
+        copy.setPassword(source.getPassword());
+        copy.setDisplayName(source.getDisplayName());
+        return copy;
+    }
+}
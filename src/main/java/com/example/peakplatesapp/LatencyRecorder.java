@@ -0,0 +1,52 @@
+package com.example.peakplatesapp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency samples of one operation, such as login, with p50/p99 over the most recent samples.
+ * Recorders are looked up by name and printed on exit.
+ */
+public final class LatencyRecorder {
+    private static final Map<String, LatencyRecorder> BY_NAME = new ConcurrentHashMap<>();
+    // Percentiles cover this many of the newest samples
+    private static final int WINDOW = 1024;
+
+    private final String name;
+    private final long[] samples = new long[WINDOW];
+    private long count;
+
+    private LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public static LatencyRecorder named(String name) {
+        return BY_NAME.computeIfAbsent(name, LatencyRecorder::new);
+    }
+
+    public static Collection<LatencyRecorder> all() {
+        return BY_NAME.values();
+    }
+
+    public synchronized void record(long nanos) {
+        samples[(int) (count++ % WINDOW)] = nanos;
+    }
+
+    // Nearest-rank percentile in milliseconds, 0 without samples
+    public synchronized double percentileMillis(double percentile) {
+        int size = (int) Math.min(count, WINDOW);
+        if (size == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Latency[%s: n=%d, p50=%.1f ms, p99=%.1f ms]",
+                name, count, percentileMillis(50), percentileMillis(99));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.peakplatesapp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Stores blobs as files under a local directory. Used with the in-memory backend.
+ */
+public class LocalBlobStore implements BlobStore {
+    private final Path root;
+
+    public LocalBlobStore() {
+        this(Paths.get(System.getProperty("java.io.tmpdir"), "peakplates-blobs"));
+    }
+
+    public LocalBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String path, byte[] data, String contentType) throws IOException {
+        Path file = resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, data);
+    }
+
+    @Override
+    public byte[] get(String path) throws IOException {
+        Path file = resolve(path);
+        return Files.exists(file) ? Files.readAllBytes(file) : null;
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        Files.deleteIfExists(resolve(path));
+    }
+
+    private Path resolve(String path) throws IOException {
+        Path file = root.resolve(path).normalize();
+        // Keep paths like "../x" from escaping the store directory
+        if (!file.startsWith(root.normalize())) {
+            throw new IOException("Invalid blob path: " + path);
+        }
+        return file;
+    }
+}
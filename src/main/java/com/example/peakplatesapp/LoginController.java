@@ -1,5 +1,6 @@
 package com.example.peakplatesapp;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -7,23 +8,19 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.Firestore;
-
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.UserRecord;
-
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class LoginController {
 
     @FXML private TextField emailField;
     @FXML private PasswordField passwordField;
 
+    private static final LatencyRecorder LOGIN_LATENCY = LatencyRecorder.named("login");
+
     private MainApp mainApp;
+    private boolean loggingIn;
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -42,101 +39,67 @@ public class LoginController {
         // SAME AS YOURS — do not change this
         String loginEmail = username.contains("@") ? username : username + "@example.com";
 
-        System.out.println("Attempting login with email: " + loginEmail);
-
         tryFirestoreLogin(loginEmail, password);
     }
 
+    // Runs off the FX thread: the account lookup and the sign-in check are started together
     private void tryFirestoreLogin(String email, String password) {
-        try {
-            System.out.println("=== DEBUG START ===");
-            System.out.println("Looking for email: " + email);
-
-            Firestore db = FirestoreContext.getFirestore(); // SAME
-
-            // SAME FIRESTORE DEBUG INFO
-            System.out.println("Querying ALL users to see what's in database...");
-            QuerySnapshot allUsers = db.collection("users").get().get();
-            System.out.println("Total users in database: " + allUsers.size());
-
-            for (QueryDocumentSnapshot doc : allUsers) {
-                System.out.println("--- Document ID: " + doc.getId() + " ---");
-                System.out.println("Data: " + doc.getData());
-                if (doc.contains("email")) {
-                    System.out.println("Email in DB: " + doc.getString("email"));
-                }
-                if (doc.contains("password")) {
-                    String storedPass = doc.getString("password");
-                    System.out.println("Password in DB: " + (storedPass != null ? "[EXISTS]" : "null"));
-                }
-                if (doc.contains("uid")) {
-                    System.out.println("UID in DB: " + doc.getString("uid"));
-                }
-            }
-
-            // SAME QUERY
-            System.out.println("\nNow querying for email: " + email);
-            QuerySnapshot snap = db.collection("users")
-                    .whereEqualTo("email", email)
-                    .get()
-                    .get();
+        if (loggingIn) return;
+        loggingIn = true;
+        long start = System.nanoTime();
 
-            System.out.println("Query found " + snap.size() + " documents");
-
-            boolean authenticated = false;
+        AppExecutors.io().execute(() -> {
+            String message;
             String uid = null;
-
-            // SAME PASSWORD CHECKING
-            for (QueryDocumentSnapshot doc : snap.getDocuments()) {
-                System.out.println("Checking document: " + doc.getId());
-                String storedPassword = doc.getString("password");
-                System.out.println("Stored password: " + storedPassword);
-                System.out.println("Input password: " + password);
-
-                if (storedPassword != null && storedPassword.equals(password)) {
-                    authenticated = true;
-                    uid = doc.getString("uid");
-                    System.out.println("✅ Password match! UID: " + uid);
-                    break;
-                } else if (storedPassword == null) {
-                    System.out.println("❌ No password field in document");
+            try {
+                Future<String> authLookup = Repositories.auth().lookupUid(email);
+
+                // Single indexed query on email
+                UserAccount account = Repositories.users().findByEmail(email);
+                if (account == null || account.getPassword() == null || !account.getPassword().equals(password)) {
+                    authLookup.cancel(true);
+                    message = "Invalid username or password.";
+                } else if (!verifiedByAuth(authLookup, account.getUid())) {
+                    message = "Login error: User not found in authentication system.";
                 } else {
-                    System.out.println("❌ Password mismatch");
+                    uid = account.getUid();
+                    message = "Login successful!";
                 }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                System.err.println("❌ Firestore login error: " + e.getMessage());
+                e.printStackTrace();
+                message = "Login failed: " + e.getMessage();
             }
-
-            // SAME AUTH LOGIC
-            if (authenticated && uid != null) {
-                System.out.println("Authentication successful! Navigating...");
-
+            LOGIN_LATENCY.record(System.nanoTime() - start);
+
+            String finalMessage = message;
+            String finalUid = uid;
+            Platform.runLater(() -> {
+                loggingIn = false;
+                showAlert(finalMessage);
+                if (finalUid == null) return;
                 try {
-                    FirebaseAuth auth = FirestoreContext.getAuth();
-                    UserRecord userRecord = auth.getUser(uid);
-                    System.out.println("✅ Firebase Auth verification: " + userRecord.getEmail());
-
-                    showAlert("Login successful!");
-
                     if (mainApp != null) {
-                        mainApp.switchToDashboard(uid);
+                        mainApp.switchToDashboard(finalUid);
                     } else {
                         System.err.println("❌ mainApp is null!");
                         showAlert("Application error: Cannot navigate.");
                     }
-
-                } catch (FirebaseAuthException e) {
-                    System.err.println("❌ Firebase Auth verification failed: " + e.getMessage());
-                    showAlert("Login error: User not found in authentication system.");
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    showAlert("Login failed: " + e.getMessage());
                 }
+            });
+        });
+    }
 
-            } else {
-                System.out.println("❌ Authentication failed");
-                showAlert("Invalid username or password.");
-            }
-
-        } catch (Exception e) {
-            System.err.println("❌ Firestore login error: " + e.getMessage());
-            e.printStackTrace();
-            showAlert("Login failed: " + e.getMessage());
+    // The sign-in account for the email must exist and belong to the same user
+    private static boolean verifiedByAuth(Future<String> authLookup, String uid) throws InterruptedException {
+        try {
+            return uid.equals(authLookup.get());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
         }
     }
 
@@ -1,6 +1,5 @@
 package com.example.peakplatesapp;
 
-import com.google.cloud.firestore.DocumentSnapshot;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -8,8 +7,8 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javafx.scene.control.Alert;
 
@@ -42,9 +41,10 @@ public class MainApp extends Application {
         stage.setTitle("Peak Plates");
         stage.show();
 
-        // If credentials look missing, show a non-blocking informational alert
+        // If credentials look missing, show a non-blocking informational alert (not needed for the memory backend)
         try {
-            String credsCheck = FirestoreContext.credentialsHealthCheck();
+            String credsCheck = "memory".equalsIgnoreCase(System.getProperty("peakplates.backend"))
+                    ? null : FirestoreContext.credentialsHealthCheck();
             if (credsCheck != null) {
                 Alert info = new Alert(Alert.AlertType.WARNING);
                 info.setTitle("Firebase Configuration");
@@ -57,6 +57,24 @@ public class MainApp extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        // Write the likes/favorites still waiting in the queues before the JVM exits
+        try {
+            WriteBehindQueue.flushAll().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Error flushing queued reactions on exit: " + e.getMessage());
+        }
+        for (WriteBehindQueue queue : WriteBehindQueue.all()) {
+            System.out.println(queue);
+        }
+        System.out.println(ImageCache.shared());
+        System.out.println(UserDirectory.shared());
+        for (LatencyRecorder latency : LatencyRecorder.all()) {
+            System.out.println(latency);
+        }
+    }
+
     // ---------------------------
     // FXML Loader Helper
     // ---------------------------
@@ -90,7 +108,7 @@ public class MainApp extends Application {
             }
         }
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Login → Dashboard navigation
@@ -105,7 +123,7 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.loadUserData();
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Dashboard → Upload Recipe
@@ -122,7 +140,7 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.setUsername(username);
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     //Backwards-compatible switchToDashboard overload used by older callers.
@@ -143,11 +161,11 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.loadFavorites();
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Share Recipe Page
-    public void switchToShareRecipe(String userId, Recipe recipe) throws IOException {
+    public void switchToShareRecipe(String userId, RecipeSummary recipe) throws IOException {
         FXMLLoader loader = new FXMLLoader(
                 MainApp.class.getResource("/com/example/peakplatesapp/ShareRecipe.fxml")
         );
@@ -159,7 +177,7 @@ public class MainApp extends Application {
         controller.setRecipeId(recipe.getId());
         controller.setRecipe(recipe);
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Shared with Me Page
@@ -174,7 +192,7 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.loadSharedRecipes();
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Friends Page
@@ -189,7 +207,7 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.loadFriends();
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     // Friend Requests Page
@@ -204,7 +222,7 @@ public class MainApp extends Application {
         controller.setUserId(userId);
         controller.loadRequests();
 
-        scene.setRoot(root);
+        showRoot(root);
     }
 
     public void switchToHome(String userId) throws IOException {
@@ -219,7 +237,7 @@ public class MainApp extends Application {
         controller.loadUserData();
 
 
-        scene.setRoot(root);
+        showRoot(root);
     }
     public void switchToPreferences(String userId) throws IOException, ExecutionException, InterruptedException {
         FXMLLoader loader = new FXMLLoader(
@@ -232,20 +250,15 @@ public class MainApp extends Application {
         controller.setUserId(userId);
 
         // Load goals
-        DocumentSnapshot doc = FirestoreContext.getFirestore()
-                .collection("users")
-                .document(userId)
-                .get()
-                .get();
-
-        Map<String, Object> goals = null;
-        if (doc.exists()) {
-            goals = (Map<String, Object>) doc.get("goals");
-        }
-
-        controller.loadCurrentGoals(goals);
+        UserAccount account = Repositories.users().findById(userId);
+        controller.loadCurrentGoals(account != null ? account.getGoals() : null);
 
         // 🔥 IMPORTANT: use same scene, do NOT create a new one
+        showRoot(root);
+    }
+
+    // Queued likes/favorites keep coalescing across screens; they flush on their timer and in stop()
+    private void showRoot(Parent root) {
         scene.setRoot(root);
     }
 
@@ -0,0 +1,242 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Range and nearest-profile queries over the calories, protein, carbs and fats of the recipes a
+ * screen has loaded. Each macro is a primitive column indexed by recipe position, plus a copy
+ * sorted by value (value and position packed in one long) that is rebuilt lazily after adds.
+ * A range query binary-searches every constrained column, walks the narrowest range and checks
+ * the other constraints against the plain columns.
+ * Recipes with all four macros at 0 never entered nutrition data and are left out of queries.
+ */
+public class NutritionIndex {
+    static final int CALORIES = 0;
+    static final int PROTEIN = 1;
+    static final int CARBS = 2;
+    static final int FATS = 3;
+    private static final int MACROS = 4;
+
+    // Distances are compared in kcal: 4 kcal per gram of protein or carbs, 9 per gram of fat
+    private static final int[] KCAL_PER_UNIT = {1, 4, 4, 9};
+
+    // Search bar terms such as cal<=500, protein>=30, fat=10 or carbs~40 (closest to 40 first)
+    private static final Pattern TERM = Pattern.compile("(kcal|calories|cal|protein|prot|carbs|carb|fats|fat)(<=|>=|<|>|=|~)(\\d{1,6})");
+    private static final Map<String, Integer> MACRO_NAMES = Map.of(
+            "kcal", CALORIES, "calories", CALORIES, "cal", CALORIES,
+            "protein", PROTEIN, "prot", PROTEIN,
+            "carbs", CARBS, "carb", CARBS,
+            "fats", FATS, "fat", FATS);
+
+    /**
+     * A search bar query split into its macro terms and the remaining free text.
+     * min/max are inclusive bounds per macro; target is -1 where no profile value was given.
+     */
+    public record Query(String text, int[] min, int[] max, int[] target) {
+        boolean hasRanges() {
+            for (int macro = 0; macro < MACROS; macro++) {
+                if (min[macro] != Integer.MIN_VALUE || max[macro] != Integer.MAX_VALUE) return true;
+            }
+            return false;
+        }
+
+        boolean hasTarget() {
+            for (int value : target) {
+                if (value >= 0) return true;
+            }
+            return false;
+        }
+    }
+
+    private final Map<String, Integer> positionById = new HashMap<>();
+    private final int[][] columns = new int[MACROS][64];
+    private final BitSet known = new BitSet();
+    private int size;
+
+    // (value << 32 | position) per macro, known recipes only; null until the next query after a change
+    private long[][] sorted;
+
+    public static Query parse(String input) {
+        int[] min = new int[MACROS];
+        int[] max = new int[MACROS];
+        int[] target = new int[MACROS];
+        Arrays.fill(min, Integer.MIN_VALUE);
+        Arrays.fill(max, Integer.MAX_VALUE);
+        Arrays.fill(target, -1);
+
+        StringBuilder text = new StringBuilder();
+        for (String token : input.trim().split("\\s+")) {
+            Matcher matcher = TERM.matcher(token.toLowerCase(Locale.ROOT));
+            if (!matcher.matches()) {
+                if (!token.isEmpty()) text.append(text.length() > 0 ? " " : "").append(token);
+                continue;
+            }
+            int macro = MACRO_NAMES.get(matcher.group(1));
+            int value = Integer.parseInt(matcher.group(3));
+            switch (matcher.group(2)) {
+                case "<=" -> max[macro] = Math.min(max[macro], value);
+                case "<" -> max[macro] = Math.min(max[macro], value - 1);
+                case ">=" -> min[macro] = Math.max(min[macro], value);
+                case ">" -> min[macro] = Math.max(min[macro], value + 1);
+                case "=" -> {
+                    min[macro] = Math.max(min[macro], value);
+                    max[macro] = Math.min(max[macro], value);
+                }
+                default -> target[macro] = value;
+            }
+        }
+        return new Query(text.toString(), min, max, target);
+    }
+
+    public void addAll(Collection<RecipeSummary> recipes) {
+        for (RecipeSummary recipe : recipes) {
+            add(recipe);
+        }
+    }
+
+    // Adds a recipe, or replaces the macros of one already indexed
+    public void add(RecipeSummary recipe) {
+        Integer position = positionById.get(recipe.getId());
+        if (position == null) {
+            position = size++;
+            positionById.put(recipe.getId(), position);
+            if (position == columns[0].length) {
+                for (int macro = 0; macro < MACROS; macro++) {
+                    columns[macro] = Arrays.copyOf(columns[macro], position * 2);
+                }
+            }
+        }
+        columns[CALORIES][position] = recipe.getCalories();
+        columns[PROTEIN][position] = recipe.getProtein();
+        columns[CARBS][position] = recipe.getCarbs();
+        columns[FATS][position] = recipe.getFats();
+        known.set(position, recipe.getCalories() != 0 || recipe.getProtein() != 0
+                || recipe.getCarbs() != 0 || recipe.getFats() != 0);
+        sorted = null;
+    }
+
+    public void clear() {
+        positionById.clear();
+        known.clear();
+        size = 0;
+        sorted = null;
+    }
+
+    /**
+     * Positions of the recipes within every range of the query.
+     * Only the narrowest constrained column is walked; the others are checked per recipe.
+     */
+    public BitSet range(Query query) {
+        ensureSorted();
+        int[] from = new int[MACROS];
+        int[] to = new int[MACROS];
+        int narrowest = -1;
+        for (int macro = 0; macro < MACROS; macro++) {
+            long[] column = sorted[macro];
+            from[macro] = query.min()[macro] == Integer.MIN_VALUE ? 0 : lowerBound(column, (long) query.min()[macro] << 32);
+            to[macro] = query.max()[macro] == Integer.MAX_VALUE ? column.length : lowerBound(column, ((long) query.max()[macro] + 1) << 32);
+            boolean constrained = from[macro] != 0 || to[macro] != column.length;
+            if (constrained && (narrowest < 0 || to[macro] - from[macro] < to[narrowest] - from[narrowest])) {
+                narrowest = macro;
+            }
+        }
+        if (narrowest < 0) return (BitSet) known.clone();
+
+        BitSet result = new BitSet(size);
+        long[] column = sorted[narrowest];
+        for (int i = from[narrowest]; i < to[narrowest]; i++) {
+            int position = (int) column[i];
+            if (inRange(position, query)) result.set(position);
+        }
+        return result;
+    }
+
+    // The given recipes within the query's ranges, in their original order
+    public List<RecipeSummary> select(Collection<RecipeSummary> recipes, Query query) {
+        BitSet matches = range(query);
+        List<RecipeSummary> result = new ArrayList<>();
+        for (RecipeSummary recipe : recipes) {
+            Integer position = positionById.get(recipe.getId());
+            if (position != null && matches.get(position)) result.add(recipe);
+        }
+        return result;
+    }
+
+    /**
+     * The given recipes with nutrition data, closest to the query's target profile first.
+     * Only the macros with a target count towards the distance.
+     */
+    public List<RecipeSummary> nearest(List<RecipeSummary> recipes, Query query) {
+        // Squared kcal distance in the high half, index into recipes in the low half
+        long[] ranked = new long[recipes.size()];
+        int count = 0;
+        for (int i = 0; i < recipes.size(); i++) {
+            Integer position = positionById.get(recipes.get(i).getId());
+            if (position == null || !known.get(position)) continue;
+            long distance = distance(position, query.target());
+            ranked[count++] = Math.min(distance, Integer.MAX_VALUE) << 32 | i;
+        }
+        Arrays.sort(ranked, 0, count);
+
+        List<RecipeSummary> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(recipes.get((int) ranked[i]));
+        }
+        return result;
+    }
+
+    private boolean inRange(int position, Query query) {
+        for (int macro = 0; macro < MACROS; macro++) {
+            int value = columns[macro][position];
+            if (value < query.min()[macro] || value > query.max()[macro]) return false;
+        }
+        return true;
+    }
+
+    private long distance(int position, int[] target) {
+        long distance = 0;
+        for (int macro = 0; macro < MACROS; macro++) {
+            if (target[macro] < 0) continue;
+            long delta = (long) (columns[macro][position] - target[macro]) * KCAL_PER_UNIT[macro];
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    private void ensureSorted() {
+        if (sorted != null) return;
+        long[][] rebuilt = new long[MACROS][known.cardinality()];
+        for (int macro = 0; macro < MACROS; macro++) {
+            int i = 0;
+            for (int position = known.nextSetBit(0); position >= 0; position = known.nextSetBit(position + 1)) {
+                rebuilt[macro][i++] = (long) columns[macro][position] << 32 | position;
+            }
+            Arrays.sort(rebuilt[macro]);
+        }
+        sorted = rebuilt;
+    }
+
+    // First index whose entry is >= key
+    private static int lowerBound(long[] column, long key) {
+        int low = 0;
+        int high = column.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (column[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -52,12 +52,7 @@ public class PreferenceController {
             goals.put("carbs", carbs);
             goals.put("fats", fats);
 
-            // Update only the goals sub-map
-            FirestoreContext.getFirestore()
-                    .collection("users")
-                    .document(userId)
-                    .update("goals", goals)
-                    .get();
+            Repositories.users().saveGoals(userId, goals);
 
             // After saving, go back to home and force reload so Home picks up new goals
             if (mainApp != null) mainApp.switchToHome(userId);
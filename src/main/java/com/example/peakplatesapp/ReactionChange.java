@@ -0,0 +1,12 @@
+package com.example.peakplatesapp;
+
+/**
+ * Net like/favorite state a user wants for one recipe, as flushed by {@link WriteBehindQueue}.
+ */
+public record ReactionChange(String recipeId, Kind kind, boolean member) {
+
+    public enum Kind {
+        LIKE,
+        FAVORITE
+    }
+}
@@ -4,7 +4,10 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.annotation.IgnoreExtraProperties;
 
+// Counter bookkeeping fields (rate window) are only used inside repository transactions
+@IgnoreExtraProperties
 public class Recipe implements Serializable {
     private String id;
     private String userId;
@@ -12,7 +15,11 @@ public class Recipe implements Serializable {
     private String description;
     private String title;
     private String imagePath;
-    private Blob imageData;
+    private Blob imageData;       // legacy: image embedded in the document
+    private String imageRef;      // blob store path of the full-size image
+    private String thumbnailRef;  // blob store path of the list thumbnail
+    private String detailRef;     // blob store path of the details dialog image
+    private boolean sharded;      // counters live in recipes/{id}/shards
     private String ingredients;
     private String steps;
     private long timestamp;
@@ -135,6 +142,38 @@ public class Recipe implements Serializable {
         this.imageData = imageData;
     }
 
+    public String getImageRef() {
+        return imageRef;
+    }
+
+    public void setImageRef(String imageRef) {
+        this.imageRef = imageRef;
+    }
+
+    public String getThumbnailRef() {
+        return thumbnailRef;
+    }
+
+    public void setThumbnailRef(String thumbnailRef) {
+        this.thumbnailRef = thumbnailRef;
+    }
+
+    public String getDetailRef() {
+        return detailRef;
+    }
+
+    public void setDetailRef(String detailRef) {
+        this.detailRef = detailRef;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public void setSharded(boolean sharded) {
+        this.sharded = sharded;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -0,0 +1,85 @@
+package com.example.peakplatesapp;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Like and favorite toggles with an optimistic UI. The caller's patcher applies the count change to
+ * the row right away, the write is queued in the user's {@link WriteBehindQueue}, and if the write
+ * fails the patcher applies the inverse change to whatever the row holds by then, so patches made
+ * in between (another click, a refreshed count) are kept. Callbacks run on the FX thread.
+ */
+public final class RecipeActions {
+
+    // Applies a change to the current summary of every row showing the recipe
+    @FunctionalInterface
+    public interface RowPatcher {
+        void patch(String recipeId, UnaryOperator<RecipeSummary> change);
+    }
+
+    // Private constructor to prevent instantiation
+    private RecipeActions() {
+    }
+
+    public static void toggleLike(String userId, RecipeSummary recipe,
+                                  RowPatcher patcher, Consumer<Exception> onFailed) {
+        UserReactions reactions = UserReactions.of(userId);
+        reactions.whenLoaded(() -> {
+            String id = recipe.getId();
+            boolean wasLiked = reactions.isLiked(id);
+            reactions.setLiked(id, !wasLiked);
+            int delta = wasLiked ? -1 : 1;
+            patcher.patch(id, current -> withLikes(current, delta));
+
+            WriteBehindQueue.of(userId).enqueue(id, ReactionChange.Kind.LIKE, wasLiked, !wasLiked,
+                    e -> Platform.runLater(() -> {
+                        reactions.setLiked(id, wasLiked);
+                        patcher.patch(id, current -> withLikes(current, -delta));
+                        onFailed.accept(e);
+                    }));
+        }, error -> onFailed.accept(error instanceof Exception ex ? ex : new RuntimeException(error)));
+    }
+
+    public static void toggleFavorite(String userId, RecipeSummary recipe,
+                                      RowPatcher patcher, Consumer<Exception> onFailed) {
+        UserReactions reactions = UserReactions.of(userId);
+        reactions.whenLoaded(() -> {
+            String id = recipe.getId();
+            boolean wasFavorited = reactions.isFavorited(id);
+            reactions.setFavorited(id, !wasFavorited);
+            int delta = wasFavorited ? -1 : 1;
+            patcher.patch(id, current -> withFavorites(current, delta));
+
+            WriteBehindQueue.of(userId).enqueue(id, ReactionChange.Kind.FAVORITE, wasFavorited, !wasFavorited,
+                    e -> Platform.runLater(() -> {
+                        reactions.setFavorited(id, wasFavorited);
+                        patcher.patch(id, current -> withFavorites(current, -delta));
+                        onFailed.accept(e);
+                    }));
+        }, error -> onFailed.accept(error instanceof Exception ex ? ex : new RuntimeException(error)));
+    }
+
+    // Replaces each summary with this id by change applied to it; the list fires a change only for that row
+    public static void patchById(List<RecipeSummary> recipes, String recipeId, UnaryOperator<RecipeSummary> change) {
+        for (int i = 0; i < recipes.size(); i++) {
+            if (recipeId.equals(recipes.get(i).getId())) {
+                recipes.set(i, change.apply(recipes.get(i)));
+            }
+        }
+    }
+
+    private static RecipeSummary withLikes(RecipeSummary current, int delta) {
+        RecipeSummary updated = current.copy();
+        updated.setLikes(Math.max(0, current.getLikes() + delta));
+        return updated;
+    }
+
+    private static RecipeSummary withFavorites(RecipeSummary current, int delta) {
+        RecipeSummary updated = current.copy();
+        updated.setFavorites(Math.max(0, current.getFavorites() + delta));
+        return updated;
+    }
+}
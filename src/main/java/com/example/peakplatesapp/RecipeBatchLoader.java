@@ -0,0 +1,96 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fetches many recipe summaries by id in chunks, with a bounded number of chunks in flight.
+ * Duplicate ids are dropped, and chunks are handed to the caller strictly in input
+ * order as soon as every earlier chunk has arrived, so a list can render top-down
+ * while later chunks are still downloading.
+ */
+public class RecipeBatchLoader {
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+    private static final int DEFAULT_MAX_PARALLEL = 4;
+
+    private final RecipeRepository repository;
+    private final int chunkSize;
+    private final int maxParallel;
+
+    public RecipeBatchLoader(RecipeRepository repository) {
+        this(repository, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_PARALLEL);
+    }
+
+    public RecipeBatchLoader(RecipeRepository repository, int chunkSize, int maxParallel) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+        this.maxParallel = maxParallel;
+    }
+
+    /**
+     * Loads the given ids. onChunk runs on a background thread, once per chunk, in order.
+     * A chunk that fails to load is logged and delivered empty.
+     * @return a future completed after the last chunk has been delivered
+     */
+    public CompletableFuture<Void> load(List<String> ids, Consumer<List<RecipeSummary>> onChunk) {
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < unique.size(); i += chunkSize) {
+            chunks.add(unique.subList(i, Math.min(i + chunkSize, unique.size())));
+        }
+        if (chunks.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        OrderedDelivery delivery = new OrderedDelivery(chunks.size(), onChunk);
+        AtomicInteger nextChunk = new AtomicInteger();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+
+        // Each worker keeps pulling the next chunk index, which caps requests in flight at maxParallel
+        for (int w = 0; w < Math.min(maxParallel, chunks.size()); w++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                int index;
+                while ((index = nextChunk.getAndIncrement()) < chunks.size()) {
+                    List<RecipeSummary> recipes;
+                    try {
+                        recipes = repository.findSummariesByIds(chunks.get(index));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        recipes = new ArrayList<>();
+                    } catch (Exception e) {
+                        System.err.println("Error loading recipe chunk " + index + ": " + e.getMessage());
+                        recipes = new ArrayList<>();
+                    }
+                    delivery.arrived(index, recipes);
+                }
+            }, AppExecutors.io()));
+        }
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // Buffers out-of-order chunks and releases the contiguous prefix
+    private static class OrderedDelivery {
+        private final List<List<RecipeSummary>> arrived;
+        private final Consumer<List<RecipeSummary>> onChunk;
+        private int nextToDeliver;
+
+        OrderedDelivery(int chunkCount, Consumer<List<RecipeSummary>> onChunk) {
+            this.arrived = new ArrayList<>();
+            for (int i = 0; i < chunkCount; i++) arrived.add(null);
+            this.onChunk = onChunk;
+        }
+
+        synchronized void arrived(int index, List<RecipeSummary> recipes) {
+            arrived.set(index, recipes);
+            while (nextToDeliver < arrived.size() && arrived.get(nextToDeliver) != null) {
+                onChunk.accept(arrived.get(nextToDeliver));
+                arrived.set(nextToDeliver, List.of()); // release the chunk once delivered
+                nextToDeliver++;
+            }
+        }
+    }
+}
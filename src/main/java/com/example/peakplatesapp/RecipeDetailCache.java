@@ -0,0 +1,49 @@
+package com.example.peakplatesapp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Session-wide cache of full recipes, filled the first time a recipe's details are opened.
+ * Kept small because a full recipe can still carry an embedded image.
+ */
+public final class RecipeDetailCache {
+    private static final int MAX_ENTRIES = 32;
+
+    private static final Map<String, Recipe> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Recipe> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Private constructor to prevent instantiation
+    private RecipeDetailCache() {
+    }
+
+    /**
+     * Returns the full recipe, loading it from the repository on a miss. Blocking; call off the FX thread.
+     * @return the recipe, or null if it no longer exists
+     */
+    public static Recipe get(String id) throws ExecutionException, InterruptedException {
+        synchronized (CACHE) {
+            Recipe cached = CACHE.get(id);
+            if (cached != null) return cached;
+        }
+        Recipe loaded = Repositories.recipes().findById(id);
+        if (loaded != null) {
+            synchronized (CACHE) {
+                CACHE.put(id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    // Drop a recipe after it has been written so the next open sees fresh data
+    public static void invalidate(String id) {
+        synchronized (CACHE) {
+            CACHE.remove(id);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.peakplatesapp;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Opens a recipe from a list row: loads the full recipe (cached after the first open) and its
+ * detail image on the I/O pool, then hands both to the screen's dialog on the FX thread.
+ */
+public final class RecipeDetailsLoader {
+
+    // Private constructor to prevent instantiation
+    private RecipeDetailsLoader() {
+    }
+
+    /**
+     * @param show builds and shows the details dialog; image is null when the recipe has none
+     * @param alert shows an error as (title, message)
+     */
+    public static void open(RecipeSummary summary, BiConsumer<Recipe, Image> show, BiConsumer<String, String> alert) {
+        AppExecutors.io().execute(() -> {
+            try {
+                Recipe recipe = RecipeDetailCache.get(summary.getId());
+                Image image = recipe != null
+                        ? ImageCache.shared().getOrLoad(recipe.getId(), RecipeImages.DETAIL_WIDTH, () -> RecipeImages.loadDetail(recipe))
+                        : null;
+                Platform.runLater(() -> {
+                    if (recipe != null) {
+                        show.accept(recipe, image);
+                    } else {
+                        alert.accept("Not found", "This recipe is no longer available.");
+                    }
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> alert.accept("Error", "Failed to load recipe: " + e.getMessage()));
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Cursor-based pager over a recipe query (newest first).
+ * As soon as a page is handed out the next one is requested in the background,
+ * so scrolling to the bottom normally finds it already downloaded.
+ */
+public class RecipeFeed {
+
+    // One page of a query, e.g. RecipeRepository::findPage
+    public interface PageSource {
+        List<RecipeSummary> fetch(int limit, RecipeSummary after) throws ExecutionException, InterruptedException;
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+
+    private RecipeSummary cursor;                    // last recipe handed out
+    private boolean exhausted;
+    private boolean waiting;                         // a loadNext call is waiting for its page
+    private CompletableFuture<List<RecipeSummary>> pending; // in-flight or already prefetched page
+
+    public RecipeFeed(PageSource source, int pageSize) {
+        this.source = source;
+        this.pageSize = pageSize;
+    }
+
+    public synchronized boolean hasMore() {
+        return !exhausted;
+    }
+
+    public synchronized boolean isLoading() {
+        return waiting;
+    }
+
+    /**
+     * Delivers the next page to onPage, or the failure to onError. Callbacks run on a
+     * background thread. Calls made while a page is still on its way are ignored.
+     */
+    public synchronized void loadNext(Consumer<List<RecipeSummary>> onPage, Consumer<Throwable> onError) {
+        if (exhausted || waiting) return;
+        waiting = true;
+        if (pending == null) {
+            pending = fetch(cursor);
+        }
+        CompletableFuture<List<RecipeSummary>> page = pending;
+        pending = null;
+
+        page.whenComplete((recipes, error) -> {
+            synchronized (this) {
+                waiting = false;
+                if (error == null) {
+                    if (!recipes.isEmpty()) cursor = recipes.get(recipes.size() - 1);
+                    exhausted = recipes.size() < pageSize;
+                    // Prefetch one page ahead
+                    if (!exhausted) pending = fetch(cursor);
+                }
+            }
+            if (error != null) {
+                onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                onPage.accept(recipes);
+            }
+        });
+    }
+
+    private CompletableFuture<List<RecipeSummary>> fetch(RecipeSummary after) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return source.fetch(pageSize, after);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, AppExecutors.io());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.peakplatesapp;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Stores and loads recipe images through {@link Repositories#blobs()}.
+ * At upload the image is decoded once and re-encoded in parallel into a list thumbnail,
+ * a detail-dialog size and a bounded original. Recipes uploaded before images moved to
+ * the blob store still embed imageData in the document; those are read from there instead.
+ */
+public final class RecipeImages {
+    // Widths match the ImageView fit widths of the card and the details dialog
+    static final int THUMBNAIL_WIDTH = 350;
+    static final int DETAIL_WIDTH = 380;
+    // Longest side kept for the original; larger photos are downscaled instead of rejected
+    static final int MAX_ORIGINAL_SIDE = 2048;
+
+    private static final float THUMBNAIL_QUALITY = 0.75f;
+    private static final float DETAIL_QUALITY = 0.82f;
+    private static final float ORIGINAL_QUALITY = 0.9f;
+
+    // Private constructor to prevent instantiation
+    private RecipeImages() {
+    }
+
+    /**
+     * Uploads the thumbnail, detail and original renditions and points the recipe at them.
+     * The recipe must already have its id. If any upload fails, the others are deleted again.
+     * Blocking; call off the FX thread.
+     */
+    public static void store(Recipe recipe, byte[] original) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        String base = "recipes/" + recipe.getId() + "/";
+
+        // Encode and upload each size in parallel from the single decoded source
+        CompletableFuture<Void> thumbnail = CompletableFuture
+                .supplyAsync(() -> encode(scaleToFit(source, THUMBNAIL_WIDTH, Integer.MAX_VALUE), THUMBNAIL_QUALITY), AppExecutors.compute())
+                .thenAcceptAsync(bytes -> put(base + "thumb.jpg", bytes), AppExecutors.io());
+        CompletableFuture<Void> detail = CompletableFuture
+                .supplyAsync(() -> encode(scaleToFit(source, DETAIL_WIDTH, Integer.MAX_VALUE), DETAIL_QUALITY), AppExecutors.compute())
+                .thenAcceptAsync(bytes -> put(base + "detail.jpg", bytes), AppExecutors.io());
+        CompletableFuture<Void> full = CompletableFuture
+                .supplyAsync(() -> encode(scaleToFit(source, MAX_ORIGINAL_SIDE, MAX_ORIGINAL_SIDE), ORIGINAL_QUALITY), AppExecutors.compute())
+                .thenAcceptAsync(bytes -> put(base + "original.jpg", bytes), AppExecutors.io());
+
+        try {
+            CompletableFuture.allOf(thumbnail, detail, full).join();
+        } catch (CompletionException e) {
+            // allOf only fails once every upload has finished, so nothing is still being written
+            discard(base + "thumb.jpg", base + "detail.jpg", base + "original.jpg");
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            throw new IOException("Image processing failed: " + cause.getMessage(), cause);
+        }
+
+        recipe.setThumbnailRef(base + "thumb.jpg");
+        recipe.setDetailRef(base + "detail.jpg");
+        recipe.setImageRef(base + "original.jpg");
+    }
+
+    /**
+     * Deletes the renditions store() uploaded, for a recipe whose document was never saved.
+     * Failures are only logged. Blocking; call off the FX thread.
+     */
+    public static void discard(Recipe recipe) {
+        discard(recipe.getThumbnailRef(), recipe.getDetailRef(), recipe.getImageRef());
+    }
+
+    private static void discard(String... paths) {
+        for (String path : paths) {
+            if (path == null) continue;
+            try {
+                Repositories.blobs().delete(path);
+            } catch (IOException e) {
+                System.err.println("Error deleting unused image " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Blocking; returns null when the recipe has no image
+    public static byte[] loadThumbnail(RecipeSummary summary) throws IOException, ExecutionException, InterruptedException {
+        if (summary.getThumbnailRef() != null) {
+            return Repositories.blobs().get(summary.getThumbnailRef());
+        }
+        return Repositories.recipes().findImageData(summary.getId());
+    }
+
+    // Image for the details dialog. Blocking; returns null when the recipe has no image
+    public static byte[] loadDetail(Recipe recipe) throws IOException {
+        String ref = recipe.getDetailRef() != null ? recipe.getDetailRef() : recipe.getImageRef();
+        if (ref != null) {
+            return Repositories.blobs().get(ref);
+        }
+        return recipe.getImageData() != null ? recipe.getImageData().toBytes() : null;
+    }
+
+    // Scales down to fit within maxWidth x maxHeight; images that already fit are returned unchanged
+    static BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min(1.0, Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        // Halve in steps first; a single bilinear pass over a large reduction aliases badly
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != width || current.getHeight() != height || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha, so flatten transparent PNGs onto white
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    static byte[] encode(BufferedImage image, float quality) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static void put(String path, byte[] bytes) {
+        try {
+            Repositories.blobs().put(path, bytes, "image/jpeg");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
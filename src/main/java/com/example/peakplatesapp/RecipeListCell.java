@@ -0,0 +1,118 @@
+package com.example.peakplatesapp;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Recipe card shown by the Dashboard, Favorites and Shared With Me lists.
+ * The ListView only creates enough cells to fill the viewport and rebinds them while
+ * scrolling, so the card nodes are built once per cell instead of once per recipe.
+ */
+public final class RecipeListCell extends ListCell<RecipeSummary> {
+    // Ask for the next page once a cell this close to the end is shown
+    private static final int LOAD_MORE_MARGIN = 5;
+    private static final String TAG_STYLE = "-fx-background-color: #e0f2f1; -fx-padding: 4 8; -fx-border-radius: 4; -fx-background-radius: 4; -fx-font-size: 11;";
+
+    private final VBox card = new VBox(10);
+    private final Label titleLabel = new Label();
+    private final Label byLabel = new Label();
+    private final FlowPane tagsFlow = new FlowPane(8, 6);
+    private final ImageView imageView = new ImageView();
+    private final Button likeButton = new Button();
+    private final Button favButton = new Button();
+    private final Button shareButton = new Button();
+    private final Runnable onNearEnd;
+
+    /**
+     * @param onNearEnd called when one of the last rows is shown, or null if the list does not page
+     */
+    public RecipeListCell(Consumer<RecipeSummary> onView, Consumer<RecipeSummary> onLike,
+                          Consumer<RecipeSummary> onFavorite, Consumer<RecipeSummary> onShare, Runnable onNearEnd) {
+        this.onNearEnd = onNearEnd;
+
+        card.setPadding(new Insets(10));
+        card.setStyle("-fx-background-color: #ffffff; -fx-border-color: #cccccc; -fx-border-radius: 8; -fx-background-radius: 8;");
+
+        titleLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
+        byLabel.setStyle("-fx-font-size: 12; -fx-text-fill: #666;");
+
+        imageView.setFitWidth(RecipeImages.THUMBNAIL_WIDTH);
+        imageView.setPreserveRatio(true);
+        imageView.setStyle("-fx-cursor: hand;");
+        imageView.setOnMouseClicked(e -> fire(onView));
+
+        // Actions: View / Like / Favorite / Share
+        Button viewButton = new Button("📖 View");
+        viewButton.setOnAction(e -> fire(onView));
+        likeButton.setOnAction(e -> fire(onLike));
+        favButton.setOnAction(e -> fire(onFavorite));
+        shareButton.setOnAction(e -> fire(onShare));
+        HBox actions = new HBox(10, viewButton, likeButton, favButton, shareButton);
+
+        card.getChildren().addAll(titleLabel, byLabel, tagsFlow, imageView, actions);
+
+        // Transparent row with the same gap the card VBoxes used to have
+        setStyle("-fx-background-color: transparent; -fx-padding: 9 0 9 0;");
+        setText(null);
+    }
+
+    @Override
+    protected void updateItem(RecipeSummary recipe, boolean empty) {
+        super.updateItem(recipe, empty);
+        if (empty || recipe == null) {
+            ImageLoader.cancel(imageView);
+            imageView.setImage(null);
+            setGraphic(null);
+            return;
+        }
+
+        titleLabel.setText(recipe.getTitle() != null ? recipe.getTitle() : "Untitled Recipe");
+        byLabel.setText("By: " + (recipe.getUsername() != null ? recipe.getUsername() : "Unknown"));
+        updateTags(recipe.getTags());
+        likeButton.setText("❤️ Like (" + recipe.getLikes() + ")");
+        favButton.setText("⭐ Favorite (" + recipe.getFavorites() + ")");
+        shareButton.setText("📤 Share (" + recipe.getShares() + ")");
+
+        // A reused cell cancels the load still pending for its previous recipe
+        ImageLoader.load(imageView, recipe.getId(), RecipeImages.THUMBNAIL_WIDTH, () -> RecipeImages.loadThumbnail(recipe));
+        setGraphic(card);
+
+        if (onNearEnd != null && getListView() != null
+                && getIndex() >= getListView().getItems().size() - LOAD_MORE_MARGIN) {
+            onNearEnd.run();
+        }
+    }
+
+    // Reuses existing tag labels and only creates new ones when a recipe has more tags
+    private void updateTags(List<String> tags) {
+        int count = tags != null ? tags.size() : 0;
+        while (tagsFlow.getChildren().size() < count) {
+            Label tagLabel = new Label();
+            tagLabel.setStyle(TAG_STYLE);
+            tagsFlow.getChildren().add(tagLabel);
+        }
+        for (int i = 0; i < tagsFlow.getChildren().size(); i++) {
+            Label tagLabel = (Label) tagsFlow.getChildren().get(i);
+            boolean used = i < count;
+            tagLabel.setVisible(used);
+            tagLabel.setManaged(used);
+            if (used) tagLabel.setText(tags.get(i));
+        }
+        tagsFlow.setVisible(count > 0);
+        tagsFlow.setManaged(count > 0);
+    }
+
+    private void fire(Consumer<RecipeSummary> action) {
+        RecipeSummary recipe = getItem();
+        if (recipe != null && action != null) action.accept(recipe);
+    }
+}
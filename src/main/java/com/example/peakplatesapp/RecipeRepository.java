@@ -0,0 +1,59 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Storage-agnostic access to the "recipes" collection.
+ * Obtain the active implementation through {@link Repositories#recipes()}.
+ */
+public interface RecipeRepository {
+
+    // Reserves a new document id without writing anything
+    String newId();
+
+    // Returns null when the recipe does not exist
+    Recipe findById(String id) throws ExecutionException, InterruptedException;
+
+    List<Recipe> findAll() throws ExecutionException, InterruptedException;
+
+    // Newest first; pass the last summary of the previous page as the cursor, or null for the first page
+    List<RecipeSummary> findPage(int limit, RecipeSummary after) throws ExecutionException, InterruptedException;
+
+    // Recipes the user has favorited, newest first, paged like findPage
+    List<RecipeSummary> findFavoritedBy(String userId, int limit, RecipeSummary after) throws ExecutionException, InterruptedException;
+
+    // Ids of the recipes the user has liked / favorited, without loading the recipes
+    Set<String> findLikedIds(String userId) throws ExecutionException, InterruptedException;
+
+    Set<String> findFavoritedIds(String userId) throws ExecutionException, InterruptedException;
+
+    // Missing ids are skipped; the order of the input list is preserved
+    List<Recipe> findByIds(List<String> ids) throws ExecutionException, InterruptedException;
+
+    // Same as findByIds, but only the summary fields are transferred
+    List<RecipeSummary> findSummariesByIds(List<String> ids) throws ExecutionException, InterruptedException;
+
+    // Recipes with only id, ingredients and steps filled in, for the search index; missing ids are skipped
+    List<Recipe> findTextByIds(List<String> ids) throws ExecutionException, InterruptedException;
+
+    // Embedded image bytes of a recipe, or null when it has none
+    byte[] findImageData(String id) throws ExecutionException, InterruptedException;
+
+    void save(Recipe recipe) throws ExecutionException, InterruptedException;
+
+    // Adds/removes the user in likedByUsers and moves likes by one in a single atomic write.
+    // Returns false (and writes nothing) when the user is already in the requested state
+    boolean setLiked(String id, String userId, boolean liked) throws ExecutionException, InterruptedException;
+
+    // Same as setLiked for favoriteByUsers / favorites
+    boolean setFavorited(String id, String userId, boolean favorited) throws ExecutionException, InterruptedException;
+
+    // Applies many like/favorite changes of one user at once, skipping those already in effect.
+    // onSettled receives each change once it is committed (or found in effect), so a failure part-way
+    // leaves the caller knowing which ones still need writing. Returns how many changed something
+    int applyReactions(String userId, List<ReactionChange> changes, Consumer<ReactionChange> onSettled)
+            throws ExecutionException, InterruptedException;
+}
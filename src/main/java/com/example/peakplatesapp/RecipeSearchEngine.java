@@ -0,0 +1,341 @@
+package com.example.peakplatesapp;
+
+import javafx.application.Platform;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Full-text search over the recipes a screen has loaded: title, tags, username, ingredients and
+ * steps. Text is tokenized, lower-cased, accent-folded and lightly stemmed, and kept in an inverted
+ * index with posting lists in primitive arrays. Results need every query term (the last one may
+ * be a prefix, for search-as-you-type) and are ranked with BM25, weighting the title highest.
+ * Recipes can be added or changed at any time; a changed recipe gets a new document id and
+ * its old postings are skipped until the index is compacted.
+ */
+public class RecipeSearchEngine {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Field order of the stored text and their weights in term frequencies and document length
+    private static final int TITLE = 0, TAGS = 1, USERNAME = 2, INGREDIENTS = 3, STEPS = 4;
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f, 1.5f, 1f};
+
+    // Most terms a trailing prefix expands to
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "with", "in", "on", "for", "to", "or", "by", "at", "from", "is", "it", "into");
+
+    // Doc ids in ascending order with their weighted term frequency
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] tf = new float[4];
+        int size;
+        int df; // live documents only
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tf = Arrays.copyOf(tf, size * 2);
+            }
+            docs[size] = doc;
+            tf[size++] = frequency;
+            df++;
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Every indexed word as written (folded) and its stem. A prefix is looked up here, because a
+    // partly typed word does not stem like the whole one: "bakin" is not a prefix of the stem "bak"
+    private final TreeMap<String, String> stemsBySurface = new TreeMap<>();
+    private final Map<String, Integer> docByRecipe = new HashMap<>();
+    private final Map<String, String[]> fieldsByRecipe = new HashMap<>();
+    private final List<String> recipeIds = new ArrayList<>();
+    private float[] docLengths = new float[64];
+    private final BitSet live = new BitSet();
+    private int liveCount;
+    private double totalLength;
+
+    // Per-search scratch indexed by doc id, reset after each search for the touched docs only
+    private float[] scores = new float[0];
+    private int[] hits = new int[0];
+    private int[] touched = new int[0];
+
+    /**
+     * Indexes the recipes, then loads their ingredients and steps in the background and calls
+     * onTextLoaded on the FX thread once those are indexed too.
+     */
+    public void addAll(Collection<RecipeSummary> recipes, Runnable onTextLoaded) {
+        List<String> ids = new ArrayList<>();
+        for (RecipeSummary recipe : recipes) {
+            add(recipe);
+            ids.add(recipe.getId());
+        }
+        if (ids.isEmpty()) return;
+
+        AppExecutors.io().execute(() -> {
+            try {
+                List<Recipe> texts = Repositories.recipes().findTextByIds(ids);
+                Platform.runLater(() -> {
+                    for (Recipe text : texts) {
+                        updateText(text.getId(), text.getIngredients(), text.getSteps());
+                    }
+                    onTextLoaded.run();
+                });
+            } catch (Exception e) {
+                System.err.println("Error loading recipe text for search: " + e.getMessage());
+            }
+        });
+    }
+
+    // Indexes or re-indexes the summary fields, keeping any ingredients/steps already known
+    public synchronized void add(RecipeSummary recipe) {
+        String[] previous = fieldsByRecipe.get(recipe.getId());
+        String[] fields = new String[FIELD_WEIGHTS.length];
+        fields[TITLE] = recipe.getTitle();
+        fields[TAGS] = recipe.getTags() != null ? String.join(" ", recipe.getTags()) : null;
+        fields[USERNAME] = recipe.getUsername();
+        if (previous != null) {
+            fields[INGREDIENTS] = previous[INGREDIENTS];
+            fields[STEPS] = previous[STEPS];
+        }
+        index(recipe.getId(), fields);
+    }
+
+    // Adds the ingredients and steps of a recipe that is already indexed
+    public synchronized void updateText(String recipeId, String ingredients, String steps) {
+        String[] previous = fieldsByRecipe.get(recipeId);
+        if (previous == null) return;
+        String[] fields = previous.clone();
+        fields[INGREDIENTS] = ingredients;
+        fields[STEPS] = steps;
+        index(recipeId, fields);
+    }
+
+    public synchronized void clear() {
+        terms.clear();
+        stemsBySurface.clear();
+        docByRecipe.clear();
+        fieldsByRecipe.clear();
+        recipeIds.clear();
+        live.clear();
+        liveCount = 0;
+        totalLength = 0;
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    // The given recipes that match the query, best first
+    public List<RecipeSummary> search(String query, Collection<RecipeSummary> among) {
+        Map<String, RecipeSummary> byId = new HashMap<>();
+        for (RecipeSummary recipe : among) {
+            byId.put(recipe.getId(), recipe);
+        }
+        List<RecipeSummary> result = new ArrayList<>();
+        for (String id : search(query, among.size())) {
+            RecipeSummary recipe = byId.get(id);
+            if (recipe != null) result.add(recipe);
+        }
+        return result;
+    }
+
+    // Ids of the best matching recipes, at most limit, best first
+    public synchronized List<String> search(String query, int limit) {
+        List<List<Postings>> groups = queryGroups(query);
+        if (groups.isEmpty() || limit <= 0) return List.of();
+
+        int docCount = recipeIds.size();
+        if (scores.length < docCount) {
+            scores = new float[docCount];
+            hits = new int[docCount];
+            touched = new int[docCount];
+        }
+        int touchedCount = 0;
+
+        float avgLength = liveCount > 0 ? (float) (totalLength / liveCount) : 1f;
+        for (int g = 0; g < groups.size(); g++) {
+            for (Postings postings : groups.get(g)) {
+                float idf = (float) Math.log(1 + (liveCount - postings.df + 0.5) / (postings.df + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    // Only docs that matched every earlier term can still qualify
+                    if (hits[doc] < g || !live.get(doc)) continue;
+                    if (g == 0 && hits[doc] == 0) touched[touchedCount++] = doc;
+                    float tf = postings.tf[i];
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * docLengths[doc] / avgLength));
+                    hits[doc] = g + 1;
+                }
+            }
+        }
+
+        // Lowest score at the head, so it is the one dropped when over the limit
+        PriorityQueue<Integer> top = new PriorityQueue<>((a, b) -> Float.compare(scores[a], scores[b]));
+        int required = groups.size();
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (hits[doc] == required) {
+                top.offer(doc);
+                if (top.size() > limit) top.poll();
+            }
+        }
+        String[] ranked = new String[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = recipeIds.get(top.poll());
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            scores[touched[i]] = 0f;
+            hits[touched[i]] = 0;
+        }
+        return Arrays.asList(ranked);
+    }
+
+    // One group of postings per query term; the last term also matches longer words it is a prefix of
+    private List<List<Postings>> queryGroups(String query) {
+        List<String> raw = tokenize(query);
+        List<List<Postings>> groups = new ArrayList<>();
+        for (int i = 0; i < raw.size(); i++) {
+            String word = raw.get(i);
+            boolean last = i == raw.size() - 1 && !Character.isWhitespace(query.charAt(query.length() - 1));
+            if (STOP_WORDS.contains(word) && !last) continue;
+
+            List<Postings> group = new ArrayList<>();
+            Postings exact = terms.get(stem(word));
+            if (exact != null) group.add(exact);
+            if (last) {
+                for (String stem : stemsBySurface.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                    if (group.size() >= MAX_PREFIX_TERMS) break;
+                    Postings postings = terms.get(stem);
+                    // Several surface words share a stem; add its postings once
+                    if (postings != null && !group.contains(postings)) group.add(postings);
+                }
+            }
+            if (group.isEmpty()) return List.of(); // a term nothing contains: no results
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private void index(String recipeId, String[] fields) {
+        String[] previous = fieldsByRecipe.get(recipeId);
+        if (previous != null && Arrays.equals(previous, fields)) return;
+        Integer oldDoc = docByRecipe.get(recipeId);
+        if (oldDoc != null) unindex(oldDoc, previous);
+
+        int doc = recipeIds.size();
+        recipeIds.add(recipeId);
+        docByRecipe.put(recipeId, doc);
+        fieldsByRecipe.put(recipeId, fields);
+
+        float length = 0;
+        Map<String, Float> frequencies = termFrequencies(fields, stemsBySurface);
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        if (doc == docLengths.length) docLengths = Arrays.copyOf(docLengths, doc * 2);
+        docLengths[doc] = length;
+        live.set(doc);
+        liveCount++;
+        totalLength += length;
+
+        // Rebuild once dead documents outnumber live ones
+        if (recipeIds.size() > 1000 && recipeIds.size() > 2 * liveCount) compact();
+    }
+
+    private void unindex(int doc, String[] fields) {
+        live.clear(doc);
+        liveCount--;
+        totalLength -= docLengths[doc];
+        for (String term : termFrequencies(fields, null).keySet()) {
+            Postings postings = terms.get(term);
+            if (postings != null) postings.df--;
+        }
+    }
+
+    private void compact() {
+        Map<String, String[]> documents = new HashMap<>(fieldsByRecipe);
+        clear();
+        for (Map.Entry<String, String[]> entry : documents.entrySet()) {
+            index(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Weighted frequency per stem; surfaces, if given, collects each word with its stem
+    private static Map<String, Float> termFrequencies(String[] fields, Map<String, String> surfaces) {
+        Map<String, Float> frequencies = new HashMap<>();
+        for (int f = 0; f < fields.length; f++) {
+            if (fields[f] == null) continue;
+            for (String word : tokenize(fields[f])) {
+                if (STOP_WORDS.contains(word)) continue;
+                String stem = stem(word);
+                frequencies.merge(stem, FIELD_WEIGHTS[f], Float::sum);
+                if (surfaces != null) surfaces.put(word, stem);
+            }
+        }
+        return frequencies;
+    }
+
+    // Lower-cased, accent-free runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Light English stemmer: plurals, -ing, -ed and a trailing e, so "baked", "bakes" and "baking" meet
+    static String stem(String word) {
+        String w = word;
+        if (w.length() > 4 && w.endsWith("ies")) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.length() > 4 && (w.endsWith("sses") || w.endsWith("shes") || w.endsWith("ches") || w.endsWith("xes") || w.endsWith("oes"))) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.length() > 3 && w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.length() > 5 && w.endsWith("ing")) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.length() > 4 && w.endsWith("ed")) {
+            w = undouble(w.substring(0, w.length() - 2));
+        }
+
+        if (w.length() > 3 && w.endsWith("e")) {
+            w = w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+
+    // "chopp" -> "chop", but keep "ll"/"ss"/"zz" endings like "grill"
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n > 2 && w.charAt(n - 1) == w.charAt(n - 2) && "lsz".indexOf(w.charAt(n - 1)) < 0
+                && !Character.isDigit(w.charAt(n - 1))) {
+            return w.substring(0, n - 1);
+        }
+        return w;
+    }
+}
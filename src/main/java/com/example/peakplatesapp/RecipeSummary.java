@@ -0,0 +1,203 @@
+package com.example.peakplatesapp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of a recipe that list cards need. Loaded with a field mask so feed queries
+ * skip the image, ingredients, steps and the per-user liked/favorited arrays;
+ * the full {@link Recipe} is fetched through {@link RecipeDetailCache} when opened.
+ */
+public class RecipeSummary implements Serializable {
+
+    // Fields selected by list queries; keep in sync with the getters below
+    public static final String[] FIELDS = {
+            "userId", "username", "title", "tags", "likes", "favorites", "shares", "timestamp", "thumbnailRef", "sharded",
+            "calories", "protein", "carbs", "fats"
+    };
+
+    private String id;
+    private String userId;
+    private String username;
+    private String title;
+    private List<String> tags;
+    private int likes;
+    private int favorites;
+    private int shares;
+    private long timestamp;
+    private String thumbnailRef;
+    private boolean sharded;
+    private int calories;
+    private int protein;
+    private int carbs;
+    private int fats;
+
+    public RecipeSummary() {
+        this.tags = new ArrayList<>();
+    }
+
+    public static RecipeSummary of(Recipe recipe) {
+        RecipeSummary summary = new RecipeSummary();
+        summary.setId(recipe.getId());
+        summary.setUserId(recipe.getUserId());
+        summary.setUsername(recipe.getUsername());
+        summary.setTitle(recipe.getTitle());
+        summary.setTags(new ArrayList<>(recipe.getTags()));
+        summary.setLikes(recipe.getLikes());
+        summary.setFavorites(recipe.getFavorites());
+        summary.setShares(recipe.getShares());
+        summary.setTimestamp(recipe.getTimestamp());
+        summary.setThumbnailRef(recipe.getThumbnailRef());
+        summary.setSharded(recipe.isSharded());
+        summary.setCalories(recipe.getCalories());
+        summary.setProtein(recipe.getProtein());
+        summary.setCarbs(recipe.getCarbs());
+        summary.setFats(recipe.getFats());
+        return summary;
+    }
+
+    // Copy for patching a list row; the ListView only redraws a row when its item changes
+    RecipeSummary copy() {
+        RecipeSummary copy = new RecipeSummary();
+        copy.setId(id);
+        copy.setUserId(userId);
+        copy.setUsername(username);
+        copy.setTitle(title);
+        copy.setTags(new ArrayList<>(getTags()));
+        copy.setLikes(likes);
+        copy.setFavorites(favorites);
+        copy.setShares(shares);
+        copy.setTimestamp(timestamp);
+        copy.setThumbnailRef(thumbnailRef);
+        copy.setSharded(sharded);
+        copy.setCalories(calories);
+        copy.setProtein(protein);
+        copy.setCarbs(carbs);
+        copy.setFats(fats);
+        return copy;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<String> getTags() {
+        if (tags == null) tags = new ArrayList<>();
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+    public int getFavorites() {
+        return favorites;
+    }
+
+    public void setFavorites(int favorites) {
+        this.favorites = favorites;
+    }
+
+    public int getShares() {
+        return shares;
+    }
+
+    public void setShares(int shares) {
+        this.shares = shares;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getThumbnailRef() {
+        return thumbnailRef;
+    }
+
+    public void setThumbnailRef(String thumbnailRef) {
+        this.thumbnailRef = thumbnailRef;
+    }
+
+    // True once the counters live in shards; the counts above then already include them
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public void setSharded(boolean sharded) {
+        this.sharded = sharded;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public void setCalories(int calories) {
+        this.calories = calories;
+    }
+
+    public int getProtein() {
+        return protein;
+    }
+
+    public void setProtein(int protein) {
+        this.protein = protein;
+    }
+
+    public int getCarbs() {
+        return carbs;
+    }
+
+    public void setCarbs(int carbs) {
+        this.carbs = carbs;
+    }
+
+    public int getFats() {
+        return fats;
+    }
+
+    public void setFats(int fats) {
+        this.fats = fats;
+    }
+}
@@ -11,8 +11,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.control.Label;
 import javafx.stage.FileChooser;
 
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.Firestore;
 import java.nio.file.Files;
 
 import java.io.File;
@@ -68,22 +66,11 @@ public class RecipeUploadController {
             chooseImageButton.setText("Image Selected ✔");
 
             // Show file size information
-            long fileSizeBytes = file.length();
-            long maxSizeBytes = 1048576;  // 1 MB
-            double fileSizeMB = fileSizeBytes / (1024.0 * 1024.0);
+            double fileSizeMB = file.length() / (1024.0 * 1024.0);
             String sizeText = file.getName() + " (" + String.format("%.2f MB", fileSizeMB) + ")";
-
-            if (fileSizeBytes > maxSizeBytes) {
-                sizeText += " ⚠️ TOO LARGE - Max 1 MB";
-                if (selectedImageLabel != null) {
-                    selectedImageLabel.setStyle("-fx-text-fill: #d32f2f;");
-                    selectedImageLabel.setText(sizeText);
-                }
-            } else {
-                if (selectedImageLabel != null) {
-                    selectedImageLabel.setStyle("-fx-text-fill: #388e3c;");
-                    selectedImageLabel.setText(sizeText);
-                }
+            if (selectedImageLabel != null) {
+                selectedImageLabel.setStyle("-fx-text-fill: #388e3c;");
+                selectedImageLabel.setText(sizeText);
             }
 
             try {
@@ -189,15 +176,6 @@ public class RecipeUploadController {
             return;
         }
 
-        // Validate image size (max 1MB for Firestore)
-        long fileSizeBytes = selectedImageFile.length();
-        long maxSizeBytes = 1048576; // 1 MB
-        if (fileSizeBytes > maxSizeBytes) {
-            double fileSizeMB = fileSizeBytes / (1024.0 * 1024.0);
-            showError(String.format("Image too large! File size: %.2f MB\nMaximum allowed: 1 MB", fileSizeMB));
-            return;
-        }
-
         // Create Recipe object
         Recipe recipe = new Recipe();
         recipe.setUserId(userId);
@@ -226,10 +204,8 @@ public class RecipeUploadController {
             System.err.println("Failed to collect tags: " + ex.getMessage());
         }
 
-        // Generate Firestore document ID
-        Firestore db = FirestoreContext.getFirestore();
-        DocumentReference ref = db.collection("recipes").document();
-        recipe.setId(ref.getId());
+        // Generate document ID
+        recipe.setId(Repositories.recipes().newId());
 
         // Show uploading progress alert
         Alert progressAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -242,12 +218,17 @@ public class RecipeUploadController {
         // Upload image and metadata in background thread
         new Thread(() -> {
             try {
-                // Convert image file to Firestore Blob
+                // Upload the image sizes to the blob store; the document only keeps the references
                 byte[] imageBytes = Files.readAllBytes(selectedImageFile.toPath());
-                recipe.setImageData(com.google.cloud.firestore.Blob.fromBytes(imageBytes));
-
-                // Save recipe to Firestore
-                ref.set(recipe).get();
+                RecipeImages.store(recipe, imageBytes);
+
+                // Save recipe; without it nothing points at the uploaded images, so remove them
+                try {
+                    Repositories.recipes().save(recipe);
+                } catch (Exception e) {
+                    RecipeImages.discard(recipe);
+                    throw e;
+                }
 
                 // Notify user on FX thread
                 Platform.runLater(() -> {
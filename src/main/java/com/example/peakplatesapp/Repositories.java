@@ -0,0 +1,85 @@
+package com.example.peakplatesapp;
+
+/**
+ * Central place the controllers get their data access from.
+ * Uses Firestore by default; start the app with -Dpeakplates.backend=memory
+ * (or call {@link #useInMemory()}) to run without a Firebase project.
+ */
+public final class Repositories {
+    private static RecipeRepository recipes;
+    private static UserRepository users;
+    private static FriendshipRepository friendships;
+    private static FriendRequestRepository friendRequests;
+    private static SharedRecipeRepository sharedRecipes;
+    private static BlobStore blobs;
+    private static AccountAuth auth;
+
+    // Private constructor to prevent instantiation
+    private Repositories() {
+    }
+
+    public static synchronized RecipeRepository recipes() {
+        if (recipes == null) initialize();
+        return recipes;
+    }
+
+    public static synchronized UserRepository users() {
+        if (users == null) initialize();
+        return users;
+    }
+
+    public static synchronized FriendshipRepository friendships() {
+        if (friendships == null) initialize();
+        return friendships;
+    }
+
+    public static synchronized FriendRequestRepository friendRequests() {
+        if (friendRequests == null) initialize();
+        return friendRequests;
+    }
+
+    public static synchronized SharedRecipeRepository sharedRecipes() {
+        if (sharedRecipes == null) initialize();
+        return sharedRecipes;
+    }
+
+    public static synchronized BlobStore blobs() {
+        if (blobs == null) initialize();
+        return blobs;
+    }
+
+    public static synchronized AccountAuth auth() {
+        if (auth == null) initialize();
+        return auth;
+    }
+
+    public static synchronized void useFirestore() {
+        recipes = new FirestoreRecipeRepository();
+        users = new FirestoreUserRepository();
+        friendships = new FirestoreFriendshipRepository();
+        friendRequests = new FirestoreFriendRequestRepository();
+        sharedRecipes = new FirestoreSharedRecipeRepository();
+        blobs = new CloudStorageBlobStore();
+        auth = new FirebaseAccountAuth();
+    }
+
+    public static synchronized void useInMemory() {
+        InMemoryRecipeRepository memoryRecipes = new InMemoryRecipeRepository();
+        recipes = memoryRecipes;
+        InMemoryUserRepository memoryUsers = new InMemoryUserRepository();
+        users = memoryUsers;
+        friendships = new InMemoryFriendshipRepository();
+        friendRequests = new InMemoryFriendRequestRepository();
+        sharedRecipes = new InMemorySharedRecipeRepository(memoryRecipes);
+        blobs = new LocalBlobStore();
+        auth = new InMemoryAccountAuth(memoryUsers);
+    }
+
+    private static void initialize() {
+        if ("memory".equalsIgnoreCase(System.getProperty("peakplates.backend"))) {
+            useInMemory();
+        } else {
+            useFirestore();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.peakplatesapp;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded likes/favorites/shares counters for recipes that get more writes than one Firestore
+ * document sustains (about one per second). A recipe is promoted automatically once its counter
+ * writes within a window cross a threshold. After that, increments go to one of SHARD_COUNT random
+ * documents under recipes/{id}/shards, and the per-user like/favorite/share state moves to
+ * recipes/{id}/reactions/{userId}, so concurrent users no longer write the same document.
+ * Reactions carry the recipe's id and timestamp so a user's favorites can be paged across recipes.
+ * The count shown is the field frozen on the recipe plus the sum of its shards.
+ */
+class ShardedCounters {
+    static final int SHARD_COUNT = 10;
+    // Promote once a recipe takes this many counter writes within one window (0.5 writes/s)
+    static final long RATE_WINDOW_MS = 60_000;
+    static final int PROMOTE_AFTER_WRITES = 30;
+    private static final long TOTALS_TTL_MS = 5_000;
+
+    // Fields read from the recipe at the start of every counter transaction
+    static final String[] STATE_FIELDS = {"sharded", "rateWindowStart", "rateWindowWrites", "timestamp"};
+
+    enum Counter {
+        LIKES("likes", "likedByUsers", "liked"),
+        FAVORITES("favorites", "favoriteByUsers", "favorited"),
+        SHARES("shares", "sharedWith", "shared");
+
+        final String field;
+        final String arrayField;
+        final String reactionField;
+
+        Counter(String field, String arrayField, String reactionField) {
+            this.field = field;
+            this.arrayField = arrayField;
+            this.reactionField = reactionField;
+        }
+    }
+
+    private record CachedTotals(long readAt, long[] totals) {
+    }
+
+    private static final ShardedCounters SHARED = new ShardedCounters();
+
+    private final Map<String, CachedTotals> totalsCache = new ConcurrentHashMap<>();
+
+    private ShardedCounters() {
+    }
+
+    // One instance for every repository that writes recipe counters, so they share the totals cache
+    static ShardedCounters shared() {
+        return SHARED;
+    }
+
+    static boolean isSharded(DocumentSnapshot state) {
+        return Boolean.TRUE.equals(state.getBoolean("sharded"));
+    }
+
+    /**
+     * Counts this write in the recipe's rate window, adding the window fields to updates
+     * and promoting the recipe once the threshold is reached.
+     */
+    static void recordWrite(DocumentSnapshot state, Map<String, Object> updates) {
+        long now = System.currentTimeMillis();
+        Long windowStart = state.getLong("rateWindowStart");
+        Long writes = state.getLong("rateWindowWrites");
+
+        if (windowStart == null || writes == null || now - windowStart > RATE_WINDOW_MS) {
+            updates.put("rateWindowStart", now);
+            updates.put("rateWindowWrites", 1);
+        } else {
+            updates.put("rateWindowWrites", FieldValue.increment(1));
+            if (writes + 1 >= PROMOTE_AFTER_WRITES) {
+                updates.put("sharded", true);
+            }
+        }
+    }
+
+    /**
+     * Adds or removes userId in the counter's array and moves the counter with it, inside the caller's
+     * transaction so concurrent toggles cannot double count. Membership is checked with an id-only
+     * query, so neither the read nor the write carries the array itself. Busy recipes switch to shards.
+     * Does its reads first and then only writes, so callers may add writes afterwards but no reads.
+     * @return false when the user is already in the requested state
+     */
+    boolean setMember(Transaction transaction, DocumentReference recipe, Counter counter, String userId, boolean member)
+            throws ExecutionException, InterruptedException {
+        Query membership = recipe.getParent()
+                .whereEqualTo(FieldPath.documentId(), recipe.getId())
+                .whereArrayContains(counter.arrayField, userId)
+                .select(FieldPath.documentId());
+        DocumentSnapshot state = transaction
+                .getAll(new DocumentReference[]{recipe}, FieldMask.of(STATE_FIELDS))
+                .get()
+                .get(0);
+        if (!state.exists()) throw new IllegalStateException("Recipe no longer exists.");
+        if (isSharded(state)) {
+            return setShardedMember(transaction, state, membership, counter, userId, member);
+        }
+
+        boolean present = !transaction.get(membership).get().isEmpty();
+        if (present == member) return false;
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(counter.arrayField, member ? FieldValue.arrayUnion(userId) : FieldValue.arrayRemove(userId));
+        updates.put(counter.field, FieldValue.increment(member ? 1 : -1));
+        recordWrite(state, updates);
+        transaction.update(recipe, updates);
+        return true;
+    }
+
+    // Sharded version of setMember. All reads happen before the writes, as transactions require
+    private boolean setShardedMember(Transaction transaction, DocumentSnapshot state, Query arrayMembership,
+                                     Counter counter, String userId, boolean member) throws ExecutionException, InterruptedException {
+        DocumentReference recipe = state.getReference();
+        boolean inArray = !transaction.get(arrayMembership).get().isEmpty();
+        DocumentReference reactionRef = recipe.collection("reactions").document(userId);
+        DocumentSnapshot reaction = transaction.get(reactionRef).get();
+        Boolean reacted = reaction.exists() ? reaction.getBoolean(counter.reactionField) : null;
+        // Users who reacted before the promotion are only recorded in the array
+        boolean present = reacted != null ? reacted : inArray;
+        if (present == member) return false;
+
+        transaction.set(reactionRef, reaction(state, counter, userId, member), SetOptions.merge());
+        // Leaving the array is a one-off write to the recipe per user who joined before the promotion
+        if (!member && inArray) {
+            transaction.update(recipe, counter.arrayField, FieldValue.arrayRemove(userId));
+        }
+        transaction.set(randomShard(recipe), Map.of(counter.field, FieldValue.increment(member ? 1 : -1)), SetOptions.merge());
+        return true;
+    }
+
+    // Fields of recipes/{id}/reactions/{userId} for a sharded recipe, written with SetOptions.merge()
+    static Map<String, Object> reaction(DocumentSnapshot state, Counter counter, String userId, boolean member) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("userId", userId);
+        fields.put("recipeId", state.getId());
+        fields.put("recipeTimestamp", state.getLong("timestamp"));
+        fields.put(counter.reactionField, member);
+        return fields;
+    }
+
+    static DocumentReference randomShard(DocumentReference recipe) {
+        return recipe.collection("shards").document(String.valueOf(ThreadLocalRandom.current().nextInt(SHARD_COUNT)));
+    }
+
+    /**
+     * Sum of the shards per counter, indexed by {@link Counter#ordinal()}, for each recipe by id.
+     * The shard queries of a whole page are all sent before any is awaited, so they cost one round trip.
+     * Reads are reused for a few seconds so a scrolling list does not re-sum on every row.
+     */
+    Map<String, long[]> totals(List<DocumentReference> recipes) throws ExecutionException, InterruptedException {
+        Map<String, long[]> result = new HashMap<>();
+        Map<String, ApiFuture<QuerySnapshot>> reads = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (DocumentReference recipe : recipes) {
+            CachedTotals cached = totalsCache.get(recipe.getId());
+            if (cached != null && now - cached.readAt() < TOTALS_TTL_MS) {
+                result.put(recipe.getId(), cached.totals());
+            } else if (!reads.containsKey(recipe.getId())) {
+                reads.put(recipe.getId(), recipe.collection("shards").get());
+            }
+        }
+
+        for (Map.Entry<String, ApiFuture<QuerySnapshot>> read : reads.entrySet()) {
+            long[] totals = new long[Counter.values().length];
+            for (QueryDocumentSnapshot shard : read.getValue().get().getDocuments()) {
+                for (Counter counter : Counter.values()) {
+                    Long value = shard.getLong(counter.field);
+                    if (value != null) totals[counter.ordinal()] += value;
+                }
+            }
+            totalsCache.put(read.getKey(), new CachedTotals(System.currentTimeMillis(), totals));
+            result.put(read.getKey(), totals);
+        }
+        return result;
+    }
+
+    // Drop the cached sum after this client wrote to the recipe
+    void invalidate(String recipeId) {
+        totalsCache.remove(recipeId);
+    }
+}
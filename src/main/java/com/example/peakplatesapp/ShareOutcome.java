@@ -0,0 +1,10 @@
+package com.example.peakplatesapp;
+
+/**
+ * Result of sharing a recipe with one recipient.
+ */
+public enum ShareOutcome {
+    SHARED,
+    ALREADY_SHARED,
+    FAILED
+}
@@ -4,27 +4,44 @@ import javafx.fxml.FXML;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
+import javafx.geometry.Pos;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ShareRecipeController {
 
     @FXML private VBox usersContainer;
     @FXML private Label recipeNameLabel;
+    @FXML private CheckBox selectAllCheckBox;
+    @FXML private Label shareStatusLabel;
+    @FXML private ProgressBar shareProgressBar;
+    @FXML private Button shareSelectedButton;
 
     private MainApp mainApp;
     private String userId;
     private String recipeId;
     private String recipeName;
-    private Recipe recipe;
+    private RecipeSummary recipe;
+
+    // Per listed user, keyed by user id
+    private final Map<String, CheckBox> selections = new LinkedHashMap<>();
+    private final Map<String, Label> shareStates = new HashMap<>();
+    private final Map<String, String> usernames = new HashMap<>();
+    private boolean sharing;
 
     public void setMainApp(MainApp mainApp) {
         this.mainApp = mainApp;
@@ -38,7 +55,7 @@ public class ShareRecipeController {
         this.recipeId = recipeId;
     }
 
-    public void setRecipe(Recipe recipe) {
+    public void setRecipe(RecipeSummary recipe) {
         this.recipe = recipe;
         this.recipeName = recipe != null ? recipe.getTitle() : "Unknown";
         if (recipeNameLabel != null) {
@@ -49,22 +66,24 @@ public class ShareRecipeController {
 
     private void loadUsers() {
         usersContainer.getChildren().clear();
+        selections.clear();
+        shareStates.clear();
+        usernames.clear();
+        selectAllCheckBox.setSelected(false);
+        updateSelection();
         Label loading = new Label("Loading users...");
         usersContainer.getChildren().add(loading);
 
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
-                QuerySnapshot usersSnapshot = FirestoreContext.getFirestore()
-                        .collection("users")
-                        .get()
-                        .get();
+                List<UserAccount> users = UserDirectory.shared().all();
 
                 List<String> userIds = new ArrayList<>();
                 List<String> usernames = new ArrayList<>();
 
-                for (QueryDocumentSnapshot doc : usersSnapshot.getDocuments()) {
-                    String uid = doc.getId();
-                    String username = doc.getString("username");
+                for (UserAccount user : users) {
+                    String uid = user.getUid();
+                    String username = user.getUsername();
 
                     // Skip current user
                     if (!uid.equals(userId)) {
@@ -93,7 +112,7 @@ public class ShareRecipeController {
                     usersContainer.getChildren().add(new Label("Error loading users: " + e.getMessage()));
                 });
             }
-        }).start();
+        });
     }
 
     private HBox createUserShareCard(String userId, String username) {
@@ -101,9 +120,20 @@ public class ShareRecipeController {
         card.setPadding(new Insets(10));
         card.setStyle("-fx-border-color: #ddd; -fx-border-width: 1; -fx-background-color: #f9f9f9;");
 
+        CheckBox select = new CheckBox();
+        select.selectedProperty().addListener((obs, was, selected) -> updateSelection());
+        selections.put(userId, select);
+        usernames.put(userId, username);
+
         Label userLabel = new Label("👤 " + username);
         userLabel.setStyle("-fx-font-size: 14;");
 
+        Label stateLabel = new Label();
+        stateLabel.setStyle("-fx-font-size: 12; -fx-text-fill: #666;");
+        shareStates.put(userId, stateLabel);
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
         Button shareButton = new Button("📤 Share");
         shareButton.setStyle("-fx-font-size: 12; -fx-padding: 8 15; -fx-background-color: #2196F3; -fx-text-fill: white;");
         shareButton.setOnAction(e -> handleShareWithUser(userId, username));
@@ -112,50 +142,28 @@ public class ShareRecipeController {
         friendRequestButton.setStyle("-fx-font-size: 12; -fx-padding: 8 15; -fx-background-color: #9C27B0; -fx-text-fill: white;");
         friendRequestButton.setOnAction(e -> handleSendFriendRequest(userId, username));
 
-        card.getChildren().addAll(userLabel, shareButton, friendRequestButton);
+        card.setAlignment(Pos.CENTER_LEFT);
+        card.getChildren().addAll(select, userLabel, stateLabel, spacer, shareButton, friendRequestButton);
         return card;
     }
 
     private void handleShareWithUser(String targetUserId, String targetUsername) {
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
                 if (recipe == null) {
                     Platform.runLater(() -> showAlert("Error", "Recipe not loaded."));
                     return;
                 }
 
-                // Add user to sharedWith list
-                List<String> sharedWith = recipe.getSharedWith();
-                if (!sharedWith.contains(targetUserId)) {
-                    sharedWith.add(targetUserId);
-                    recipe.setSharedWith(sharedWith);
-
-                    // Update recipe in Firestore
-                    FirestoreContext.getFirestore()
-                            .collection("recipes")
-                            .document(recipeId)
-                            .update("sharedWith", sharedWith)
-                            .get();
-
-                    // Store share record with timestamp for "Shared with Me" tracking
-                    String shareId = FirestoreContext.getFirestore().collection("sharedRecipes").document().getId();
-                    java.util.Map<String, Object> shareData = new java.util.HashMap<>();
-                    shareData.put("recipeId", recipeId);
-                    shareData.put("recipeName", recipeName);
-                    shareData.put("sharedBy", userId);
-                    shareData.put("sharedByUsername", recipe.getUsername());
-                    shareData.put("sharedWith", targetUserId);
-                    shareData.put("sharedAt", com.google.cloud.Timestamp.now());
-
-                    FirestoreContext.getFirestore()
-                            .collection("sharedRecipes")
-                            .document(shareId)
-                            .set(shareData)
-                            .get();
+                // Share record (for "Shared with Me") and the recipe's sharedWith/shares in one batch;
+                // the record id is fixed per recipe and user, so sharing twice is a no-op
+                SharedRecipe share = new SharedRecipe(recipeId, recipeName, userId, recipe.getUsername(), targetUserId);
+                if (Repositories.sharedRecipes().share(share)) {
+                    RecipeDetailCache.invalidate(recipeId);
 
                     Platform.runLater(() -> {
+                        showShareState(targetUserId, ShareOutcome.SHARED);
                         showAlert("Success", "Recipe shared with " + targetUsername + "!");
-                        loadUsers();
                     });
                 } else {
                     Platform.runLater(() -> showAlert("Info", "Recipe already shared with " + targetUsername + "."));
@@ -164,7 +172,102 @@ public class ShareRecipeController {
                 e.printStackTrace();
                 Platform.runLater(() -> showAlert("Error", "Failed to share: " + e.getMessage()));
             }
-        }).start();
+        });
+    }
+
+    @FXML
+    public void handleSelectAll() {
+        boolean selected = selectAllCheckBox.isSelected();
+        for (CheckBox select : selections.values()) {
+            select.setSelected(selected);
+        }
+    }
+
+    // Shares with every checked user at once; the repository fans the records out in parallel batches
+    @FXML
+    public void handleShareSelected() {
+        if (recipe == null) {
+            showAlert("Error", "Recipe not loaded.");
+            return;
+        }
+        List<SharedRecipe> shares = new ArrayList<>();
+        for (Map.Entry<String, CheckBox> entry : selections.entrySet()) {
+            if (entry.getValue().isSelected()) {
+                shares.add(new SharedRecipe(recipeId, recipeName, userId, recipe.getUsername(), entry.getKey()));
+            }
+        }
+        if (shares.isEmpty()) return;
+
+        int total = shares.size();
+        sharing = true;
+        updateSelection();
+        shareProgressBar.setProgress(0);
+        shareProgressBar.setVisible(true);
+        shareProgressBar.setManaged(true);
+        shareStatusLabel.setText("Sharing with " + total + " user" + (total != 1 ? "s" : "") + "...");
+
+        AppExecutors.io().execute(() -> {
+            try {
+                Map<String, ShareOutcome> outcomes = Repositories.sharedRecipes().shareAll(shares,
+                        done -> Platform.runLater(() -> shareProgressBar.setProgress((double) done / total)));
+                RecipeDetailCache.invalidate(recipeId);
+                Platform.runLater(() -> showShareResults(outcomes));
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> {
+                    finishSharing();
+                    shareStatusLabel.setText("");
+                    showAlert("Error", "Failed to share: " + e.getMessage());
+                });
+            }
+        });
+    }
+
+    private void showShareResults(Map<String, ShareOutcome> outcomes) {
+        finishSharing();
+        Map<ShareOutcome, List<String>> names = new EnumMap<>(ShareOutcome.class);
+        for (Map.Entry<String, ShareOutcome> entry : outcomes.entrySet()) {
+            showShareState(entry.getKey(), entry.getValue());
+            names.computeIfAbsent(entry.getValue(), outcome -> new ArrayList<>())
+                    .add(usernames.getOrDefault(entry.getKey(), entry.getKey()));
+            // Failed recipients stay selected so the user can retry them
+            CheckBox select = selections.get(entry.getKey());
+            if (select != null && entry.getValue() != ShareOutcome.FAILED) select.setSelected(false);
+        }
+
+        List<String> shared = names.getOrDefault(ShareOutcome.SHARED, List.of());
+        List<String> already = names.getOrDefault(ShareOutcome.ALREADY_SHARED, List.of());
+        List<String> failed = names.getOrDefault(ShareOutcome.FAILED, List.of());
+        shareStatusLabel.setText(shared.size() + " shared, " + already.size() + " already had it, " + failed.size() + " failed");
+
+        StringBuilder summary = new StringBuilder();
+        if (!shared.isEmpty()) summary.append("✅ Shared with: ").append(String.join(", ", shared)).append("\n");
+        if (!already.isEmpty()) summary.append("ℹ️ Already shared with: ").append(String.join(", ", already)).append("\n");
+        if (!failed.isEmpty()) summary.append("❌ Failed for: ").append(String.join(", ", failed)).append("\n");
+        showAlert(failed.isEmpty() ? "Success" : "Partially shared", summary.toString().trim());
+    }
+
+    private void showShareState(String targetUserId, ShareOutcome outcome) {
+        Label stateLabel = shareStates.get(targetUserId);
+        if (stateLabel == null) return;
+        switch (outcome) {
+            case SHARED -> stateLabel.setText("✅ Shared");
+            case ALREADY_SHARED -> stateLabel.setText("Already shared");
+            case FAILED -> stateLabel.setText("❌ Failed");
+        }
+    }
+
+    private void finishSharing() {
+        sharing = false;
+        shareProgressBar.setVisible(false);
+        shareProgressBar.setManaged(false);
+        updateSelection();
+    }
+
+    private void updateSelection() {
+        long count = selections.values().stream().filter(CheckBox::isSelected).count();
+        shareSelectedButton.setText(count > 0 ? "📤 Share with selected (" + count + ")" : "📤 Share with selected");
+        shareSelectedButton.setDisable(sharing || count == 0);
     }
 
     @FXML
@@ -204,54 +307,33 @@ public class ShareRecipeController {
     }
 
     private void handleSendFriendRequest(String targetUserId, String targetUsername) {
-        new Thread(() -> {
+        AppExecutors.io().execute(() -> {
             try {
                 // Check if friend request already exists
-                QuerySnapshot existingRequest = FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .whereEqualTo("fromUserId", userId)
-                        .whereEqualTo("toUserId", targetUserId)
-                        .get()
-                        .get();
-
-                if (!existingRequest.isEmpty()) {
+                if (Repositories.friendRequests().exists(userId, targetUserId, null)) {
                     Platform.runLater(() -> showAlert("Info", "Friend request already sent to " + targetUsername + "."));
                     return;
                 }
 
                 // Get current user's username
-                String currentUsername = FirestoreContext.getFirestore()
-                        .collection("users")
-                        .document(userId)
-                        .get()
-                        .get()
-                        .getString("username");
+                List<UserAccount> currentUser = UserDirectory.shared().findByIds(List.of(userId));
+                String currentUsername = !currentUser.isEmpty() ? currentUser.get(0).getUsername() : null;
 
                 // Create friend request
-                String requestId = FirestoreContext.getFirestore().collection("friendRequests").document().getId();
                 FriendRequest friendRequest = new FriendRequest(
                         userId,
                         currentUsername,
                         targetUserId,
                         targetUsername
                 );
-                friendRequest.setId(requestId);
-
-                FirestoreContext.getFirestore()
-                        .collection("friendRequests")
-                        .document(requestId)
-                        .set(friendRequest)
-                        .get();
+                Repositories.friendRequests().save(friendRequest);
 
-                Platform.runLater(() -> {
-                    showAlert("Success", "Friend request sent to " + targetUsername + "!");
-                    loadUsers();
-                });
+                Platform.runLater(() -> showAlert("Success", "Friend request sent to " + targetUsername + "!"));
             } catch (Exception e) {
                 e.printStackTrace();
                 Platform.runLater(() -> showAlert("Error", "Failed to send friend request: " + e.getMessage()));
             }
-        }).start();
+        });
     }
 
     @FXML
@@ -0,0 +1,88 @@
+package com.example.peakplatesapp;
+
+import java.io.Serializable;
+import com.google.cloud.Timestamp;
+
+public class SharedRecipe implements Serializable {
+    private String id;
+    private String recipeId;
+    private String recipeName;
+    private String sharedBy;
+    private String sharedByUsername;
+    private String sharedWith;
+    private Timestamp sharedAt;
+
+    public SharedRecipe() {}
+
+    public SharedRecipe(String recipeId, String recipeName, String sharedBy, String sharedByUsername, String sharedWith) {
+        this.recipeId = recipeId;
+        this.recipeName = recipeName;
+        this.sharedBy = sharedBy;
+        this.sharedByUsername = sharedByUsername;
+        this.sharedWith = sharedWith;
+        this.sharedAt = Timestamp.now();
+    }
+
+    // Deterministic record id, so sharing the same recipe with the same user twice hits the same document
+    public static String idFor(String recipeId, String sharedWith) {
+        return recipeId + "_" + sharedWith;
+    }
+
+    // Getters and Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(String recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public String getRecipeName() {
+        return recipeName;
+    }
+
+    public void setRecipeName(String recipeName) {
+        this.recipeName = recipeName;
+    }
+
+    public String getSharedBy() {
+        return sharedBy;
+    }
+
+    public void setSharedBy(String sharedBy) {
+        this.sharedBy = sharedBy;
+    }
+
+    public String getSharedByUsername() {
+        return sharedByUsername;
+    }
+
+    public void setSharedByUsername(String sharedByUsername) {
+        this.sharedByUsername = sharedByUsername;
+    }
+
+    public String getSharedWith() {
+        return sharedWith;
+    }
+
+    public void setSharedWith(String sharedWith) {
+        this.sharedWith = sharedWith;
+    }
+
+    public Timestamp getSharedAt() {
+        return sharedAt;
+    }
+
+    public void setSharedAt(Timestamp sharedAt) {
+        this.sharedAt = sharedAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
+
+/**
+ * Storage-agnostic access to the "sharedRecipes" collection.
+ */
+public interface SharedRecipeRepository {
+
+    List<SharedRecipe> findSharedWith(String userId) throws ExecutionException, InterruptedException;
+
+    // Assigns an id to the share record when it does not have one yet
+    void save(SharedRecipe share) throws ExecutionException, InterruptedException;
+
+    // Creates the share record under SharedRecipe.idFor(recipe, target) and adds the target to the
+    // recipe's sharedWith/shares, all or nothing. Returns false when it was already shared with them
+    boolean share(SharedRecipe share) throws ExecutionException, InterruptedException;
+
+    // share() for many recipients at once. onProgress receives the number of recipients handled so far
+    // (from background threads); the result maps every recipient's user id to its outcome
+    Map<String, ShareOutcome> shareAll(List<SharedRecipe> shares, IntConsumer onProgress) throws ExecutionException, InterruptedException;
+}
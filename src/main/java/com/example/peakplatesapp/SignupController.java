@@ -8,16 +8,6 @@ import javafx.scene.*;
 import javafx.application.Platform;
 import java.io.IOException;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.UserRecord;
-import com.google.firebase.auth.UserRecord.CreateRequest;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.api.core.ApiFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.HashMap;
-import java.util.Map;
-
 import javafx.fxml.FXMLLoader;
 
 public class SignupController {
@@ -50,56 +40,26 @@ public class SignupController {
 
         String email = username.contains("@") ? username : username + "@example.com";
 
-        try {
-            FirebaseAuth auth = FirestoreContext.getAuth();
-            Firestore db = FirestoreContext.getFirestore();
-
-            if (auth == null || db == null) {
-                throw new RuntimeException("Firebase initialization failed");
-            }
-
-            CreateRequest request = new CreateRequest()
-                    .setEmail(email)
-                    .setEmailVerified(false)
-                    .setPassword(password)
-                    .setDisplayName(username);
+        // The sign-in account and the user document are written off the FX thread
+        AppExecutors.io().execute(() -> {
+            try {
+                String uid = Repositories.auth().createUser(email, password, username);
+                UserAccount account = new UserAccount(uid, username, email);
+                account.setPassword(password);
+                Repositories.users().save(account);
+                UserDirectory.shared().put(account);
 
-            ApiFuture<UserRecord> userRecordFuture = auth.createUserAsync(request);
-
-            userRecordFuture.addListener(() -> {
                 Platform.runLater(() -> {
-                    try {
-                        UserRecord userRecord = userRecordFuture.get();
-
-                        Map<String, Object> data = new HashMap<>();
-                        data.put("username", username);
-                        data.put("email", email);
-                        data.put("password", password);
-                        data.put("displayName", username);
-                        data.put("uid", userRecord.getUid());
-                        data.put("createdAt", com.google.cloud.Timestamp.now());
-
-                        DocumentReference docRef =
-                                db.collection("users").document(userRecord.getUid());
-                        docRef.set(data);
-
-                        showAlert("Registration Successful!\nYou can now login.");
-
-                        usernameField.clear();
-                        passwordField.clear();
-                        confirmPasswordField.clear();
-
-                    } catch (InterruptedException | ExecutionException e) {
-                        showAlert("Registration Error: " + e.getMessage());
-                    } catch (Exception e) {
-                        showAlert("Registration Error: " + e.getMessage());
-                    }
+                    showAlert("Registration Successful!\nYou can now login.");
+                    usernameField.clear();
+                    passwordField.clear();
+                    confirmPasswordField.clear();
                 });
-            }, Runnable::run);
-
-        } catch (Exception e) {
-            showAlert("Registration Error: " + e.getMessage());
-        }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                Platform.runLater(() -> showAlert("Registration Error: " + e.getMessage()));
+            }
+        });
     }
 
     @FXML
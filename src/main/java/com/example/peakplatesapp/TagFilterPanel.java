@@ -0,0 +1,124 @@
+package com.example.peakplatesapp;
+
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.FlowPane;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The search field and tag checkboxes above a recipe list. Keeps a {@link TagIndex} of the recipes
+ * the screen has loaded, adds a checkbox for every new tag and shows on each how many recipes it
+ * would match. The screen runs its own search and calls back into {@link #select} and {@link #updateCounts}.
+ */
+public class TagFilterPanel {
+    private final TextField searchField;
+    private final FlowPane tagsContainer;
+    private final CheckBox matchAllCheckBox;
+    private final Runnable onChange;
+
+    private final TagIndex tagIndex = new TagIndex();
+    private final Set<String> selectedTags = new HashSet<>();
+    // Tag filter checkboxes by tag, in the order the tags were first seen
+    private final Map<String, CheckBox> tagCheckBoxes = new LinkedHashMap<>();
+
+    // onChange re-runs the screen's filters when a tag is checked or unchecked
+    public TagFilterPanel(TextField searchField, FlowPane tagsContainer, CheckBox matchAllCheckBox, Runnable onChange) {
+        this.searchField = searchField;
+        this.tagsContainer = tagsContainer;
+        this.matchAllCheckBox = matchAllCheckBox;
+        this.onChange = onChange;
+    }
+
+    // Indexes newly loaded recipes and adds a checkbox for every tag not seen before, keeping existing selections
+    public void addAll(Collection<RecipeSummary> recipes) {
+        tagIndex.addAll(recipes);
+        List<String> newTags = new ArrayList<>();
+        for (RecipeSummary recipe : recipes) {
+            if (recipe.getTags() == null) continue;
+            for (String tag : recipe.getTags()) {
+                if (!tagCheckBoxes.containsKey(tag) && !newTags.contains(tag)) newTags.add(tag);
+            }
+        }
+        for (String tag : newTags) {
+            CheckBox tagCheckBox = new CheckBox(tag);
+            tagCheckBox.setStyle("-fx-font-size: 12;");
+            tagCheckBox.setOnAction(e -> {
+                if (tagCheckBox.isSelected()) {
+                    selectedTags.add(tag);
+                } else {
+                    selectedTags.remove(tag);
+                }
+                onChange.run();
+            });
+            tagCheckBoxes.put(tag, tagCheckBox);
+            tagsContainer.getChildren().add(tagCheckBox);
+        }
+    }
+
+    // Re-indexes a recipe whose summary changed
+    public void add(RecipeSummary recipe) {
+        tagIndex.add(recipe);
+    }
+
+    public void remove(String recipeId) {
+        tagIndex.remove(recipeId);
+    }
+
+    // Forgets the loaded recipes before a reload; the checkboxes and selections stay
+    public void clear() {
+        tagIndex.clear();
+    }
+
+    // Search field text, never null
+    public String searchText() {
+        String text = searchField.getText();
+        return text != null ? text : "";
+    }
+
+    public boolean isFiltering() {
+        return !searchText().isBlank() || !selectedTags.isEmpty();
+    }
+
+    // The candidates with any of the selected tags, or all of them when "Match all selected" is checked
+    public List<RecipeSummary> select(List<RecipeSummary> candidates) {
+        return tagIndex.select(candidates, selectedTags, matchAllCheckBox.isSelected());
+    }
+
+    /**
+     * Shows on every tag checkbox how many recipes it would match with the current search and the
+     * other selected tags. Counted on the tag bitmaps, so the recipe list is not scanned again.
+     * @param candidates the search result; ignored while searchQuery is blank
+     */
+    public void updateCounts(String searchQuery, List<RecipeSummary> candidates) {
+        BitSet within = searchQuery.isBlank() ? tagIndex.all() : tagIndex.positionsOf(candidates);
+        // With all-of matching a tag narrows the current result; with any-of it adds its own recipes
+        if (matchAllCheckBox.isSelected()) within.and(tagIndex.filter(selectedTags, true));
+        Map<String, Integer> counts = tagIndex.facetCounts(within);
+
+        for (Map.Entry<String, CheckBox> entry : tagCheckBoxes.entrySet()) {
+            int count = counts.getOrDefault(entry.getKey(), 0);
+            CheckBox tagCheckBox = entry.getValue();
+            tagCheckBox.setText(entry.getKey() + " (" + count + ")");
+            // Nothing to find behind an unchecked empty tag; a checked one stays clickable
+            tagCheckBox.setDisable(count == 0 && !tagCheckBox.isSelected());
+        }
+    }
+
+    // Empties the search field and unchecks every tag
+    public void reset() {
+        searchField.clear();
+        selectedTags.clear();
+        for (CheckBox tagCheckBox : tagCheckBoxes.values()) {
+            tagCheckBox.setSelected(false);
+        }
+        updateCounts("", List.of());
+    }
+}
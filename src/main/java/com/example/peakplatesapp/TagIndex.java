@@ -0,0 +1,166 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag filter over the recipes a screen has loaded. Tags are interned to ordinals
+ * ({@link Tags#ordinal}); each recipe keeps its tags as a long bitmask and each tag keeps a
+ * bitmap of the recipes carrying it, so any-of and all-of filters are ORs and ANDs of
+ * bitmaps and testing a recipe is a single bit lookup.
+ */
+public class TagIndex {
+    // Recipes get a position in load order; bitmaps are indexed by position
+    private final Map<String, Integer> positionById = new HashMap<>();
+    private final List<BitSet> postings = new ArrayList<>();
+    private long[] masks = new long[64];
+    private int size;
+    // Reused by facetCounts so counting does not allocate a bitmap per tag
+    private final BitSet scratch = new BitSet();
+
+    public void addAll(Collection<RecipeSummary> recipes) {
+        for (RecipeSummary recipe : recipes) {
+            add(recipe);
+        }
+    }
+
+    // Adds a recipe, or replaces the tags of one already indexed
+    public void add(RecipeSummary recipe) {
+        Integer position = positionById.get(recipe.getId());
+        if (position == null) {
+            position = size++;
+            positionById.put(recipe.getId(), position);
+            if (position == masks.length) masks = Arrays.copyOf(masks, position * 2);
+        } else {
+            for (BitSet posting : postings) {
+                posting.clear(position);
+            }
+        }
+
+        long mask = 0;
+        if (recipe.getTags() != null) {
+            for (String tag : recipe.getTags()) {
+                int ordinal = Tags.ordinal(tag);
+                while (postings.size() <= ordinal) postings.add(new BitSet());
+                postings.get(ordinal).set(position);
+                // Ordinals past 63 only live in the bitmaps
+                if (ordinal < Long.SIZE) mask |= 1L << ordinal;
+            }
+        }
+        masks[position] = mask;
+    }
+
+    // Drops a recipe from the bitmaps; its position is not reused
+    public void remove(String recipeId) {
+        Integer position = positionById.remove(recipeId);
+        if (position == null) return;
+        for (BitSet posting : postings) {
+            posting.clear(position);
+        }
+        masks[position] = 0;
+    }
+
+    public void clear() {
+        positionById.clear();
+        postings.clear();
+        size = 0;
+    }
+
+    /**
+     * Recipes carrying any (or, with matchAll, every) of the tags, as a bitmap of positions.
+     * No tags means no filter: every indexed recipe matches.
+     */
+    public BitSet filter(Collection<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) return all();
+        BitSet result = new BitSet(size);
+        boolean first = true;
+        for (String tag : tags) {
+            int ordinal = Tags.ordinal(tag);
+            BitSet posting = ordinal < postings.size() ? postings.get(ordinal) : new BitSet();
+            if (first) {
+                result.or(posting);
+                first = false;
+            } else if (matchAll) {
+                result.and(posting);
+            } else {
+                result.or(posting);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The given recipes that carry any (or, with matchAll, every) of the tags, in their original order.
+     * Tested against each recipe's bitmask; the bitmaps are only used for tags with ordinals past 63.
+     */
+    public List<RecipeSummary> select(Collection<RecipeSummary> recipes, Collection<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) return new ArrayList<>(recipes);
+
+        long required = 0;
+        boolean fitsMask = true;
+        for (String tag : tags) {
+            int ordinal = Tags.ordinal(tag);
+            if (ordinal < Long.SIZE) {
+                required |= 1L << ordinal;
+            } else {
+                fitsMask = false;
+            }
+        }
+        BitSet matches = fitsMask ? null : filter(tags, matchAll);
+
+        List<RecipeSummary> result = new ArrayList<>();
+        for (RecipeSummary recipe : recipes) {
+            Integer position = positionById.get(recipe.getId());
+            if (position == null) continue;
+            boolean match;
+            if (!fitsMask) {
+                match = matches.get(position);
+            } else if (matchAll) {
+                match = (masks[position] & required) == required;
+            } else {
+                match = (masks[position] & required) != 0;
+            }
+            if (match) result.add(recipe);
+        }
+        return result;
+    }
+
+    /**
+     * Number of recipes per tag among the given positions: the cardinality of each tag's
+     * bitmap intersected with them. Tags with no recipe there are left out.
+     */
+    public Map<String, Integer> facetCounts(BitSet within) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < postings.size(); ordinal++) {
+            scratch.clear();
+            scratch.or(postings.get(ordinal));
+            scratch.and(within);
+            int count = scratch.cardinality();
+            if (count > 0) counts.put(Tags.tagAt(ordinal), count);
+        }
+        return counts;
+    }
+
+    // Positions of every indexed recipe
+    public BitSet all() {
+        BitSet positions = new BitSet(size);
+        positions.set(0, size);
+        return positions;
+    }
+
+    // Positions of the given recipes, e.g. a search result, for facetCounts
+    public BitSet positionsOf(Collection<RecipeSummary> recipes) {
+        BitSet positions = new BitSet(size);
+        for (RecipeSummary recipe : recipes) {
+            Integer position = positionById.get(recipe.getId());
+            if (position != null) positions.set(position);
+        }
+        return positions;
+    }
+}
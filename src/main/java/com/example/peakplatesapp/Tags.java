@@ -1,7 +1,10 @@
 package com.example.peakplatesapp;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Centralized tag management for recipe filtering and categorization.
@@ -35,10 +38,35 @@ public class Tags {
             "No Added Sugar"
     );
 
+    // Tag → ordinal; the predefined tags come first, tags seen on recipes are appended
+    private static final Map<String, Integer> ORDINALS = new HashMap<>();
+    private static final List<String> BY_ORDINAL = new ArrayList<>();
+
+    static {
+        for (String tag : AVAILABLE_TAGS) {
+            ordinal(tag);
+        }
+    }
+
     // Private constructor to prevent instantiation
     private Tags() {
     }
 
+    /**
+     * Interns a tag to a small int, stable for the rest of the session.
+     * @return the tag's ordinal
+     */
+    public static synchronized int ordinal(String tag) {
+        return ORDINALS.computeIfAbsent(tag, t -> {
+            BY_ORDINAL.add(t);
+            return BY_ORDINAL.size() - 1;
+        });
+    }
+
+    public static synchronized String tagAt(int ordinal) {
+        return BY_ORDINAL.get(ordinal);
+    }
+
     /**
      * Returns the list of available tags for recipe filtering.
      * @return list of tag strings
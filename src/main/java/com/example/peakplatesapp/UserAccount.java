@@ -0,0 +1,87 @@
+package com.example.peakplatesapp;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Login account as stored in the "users" collection.
+ * Goals and daily logs live on the same document. They are only filled by single-user reads
+ * and are written through {@link UserRepository#saveGoals} and {@link UserRepository#saveDailyLog}.
+ */
+public class UserAccount implements Serializable {
+    private String uid;
+    private String username;
+    private String email;
+    private String password;
+    private String displayName;
+    // "calories", "protein", "carbs", "fats"; null when none are set
+    private Map<String, Object> goals;
+    // Consumed totals by date (yyyy-MM-dd), with the same keys as the goals
+    private Map<String, Map<String, Object>> dailyLogs;
+
+    public UserAccount() {}
+
+    public UserAccount(String uid, String username, String email) {
+        this.uid = uid;
+        this.username = username;
+        this.email = email;
+        this.displayName = username;
+    }
+
+    // Getters and Setters
+    public String getUid() {
+        return uid;
+    }
+
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public Map<String, Object> getGoals() {
+        return goals;
+    }
+
+    public void setGoals(Map<String, Object> goals) {
+        this.goals = goals;
+    }
+
+    public Map<String, Map<String, Object>> getDailyLogs() {
+        return dailyLogs;
+    }
+
+    public void setDailyLogs(Map<String, Map<String, Object>> dailyLogs) {
+        this.dailyLogs = dailyLogs;
+    }
+}
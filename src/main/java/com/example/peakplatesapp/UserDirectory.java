@@ -0,0 +1,178 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Session-wide cache of user profiles (uid → username, email, display name) shared by the
+ * Friends and Share screens. The first use downloads the profile fields once; after the TTL the
+ * cached users keep being served while the users changed since the last refresh are fetched
+ * in the background. Every FULL_RELOAD_MS the refresh reads everyone instead, which also evicts
+ * users deleted since. Also owns the {@link UsernameIndex} used for searching.
+ */
+public final class UserDirectory {
+    private static final UserDirectory SHARED = new UserDirectory();
+    private static final long TTL_MS = 60_000;
+    // Overlap between refreshes, so a save that lands while one runs is not missed
+    private static final long REFRESH_OVERLAP_MS = 5_000;
+    // Deletions are not visible to a delta read, so a full read replaces the directory this often
+    private static final long FULL_RELOAD_MS = 10 * 60_000;
+
+    private final Map<String, UserAccount> byUid = new ConcurrentSkipListMap<>();
+    private final UsernameIndex index = new UsernameIndex();
+
+    private long loadedAt;                     // start time of the last completed refresh, 0 before the first
+    private long fullyLoadedAt;                // start time of the last completed full read
+    private CompletableFuture<Void> refreshing; // in-flight refresh, if any
+
+    private long hits;
+    private long misses;
+    private long refreshes;
+
+    private UserDirectory() {
+    }
+
+    public static UserDirectory shared() {
+        return SHARED;
+    }
+
+    /**
+     * Every known user. Only the very first call waits for the network, so call it off the FX thread.
+     */
+    public List<UserAccount> all() throws ExecutionException, InterruptedException {
+        ensureLoaded();
+        List<UserAccount> users = new ArrayList<>();
+        for (UserAccount user : byUid.values()) {
+            users.add(copy(user));
+        }
+        return users;
+    }
+
+    // Users by uid in input order; uids not cached yet are fetched and added
+    public List<UserAccount> findByIds(List<String> uids) throws ExecutionException, InterruptedException {
+        List<String> missing = new ArrayList<>();
+        for (String uid : uids) {
+            if (!byUid.containsKey(uid)) missing.add(uid);
+        }
+        count(uids.size() - missing.size(), missing.size());
+        if (!missing.isEmpty()) {
+            for (UserAccount user : Repositories.users().findByIds(missing)) {
+                put(user);
+            }
+        }
+
+        List<UserAccount> users = new ArrayList<>();
+        for (String uid : uids) {
+            UserAccount user = byUid.get(uid);
+            if (user != null) users.add(copy(user));
+        }
+        return users;
+    }
+
+    // Username search; see UsernameIndex#search
+    public List<UsernameIndex.Match> search(String query, int limit, String excludeUid) throws ExecutionException, InterruptedException {
+        ensureLoaded();
+        return index.search(query, limit, excludeUid);
+    }
+
+    // Adds a user this client just created or renamed
+    public void put(UserAccount user) {
+        if (user == null || user.getUid() == null) return;
+        UserAccount profile = copy(user);
+        profile.setPassword(null);
+        byUid.put(profile.getUid(), profile);
+        index.put(profile.getUid(), profile.getUsername());
+    }
+
+    public synchronized double hitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("UserDirectory[%d users, hits=%d, misses=%d, hitRate=%.1f%%, refreshes=%d]",
+                byUid.size(), hits, misses, hitRate() * 100, refreshes);
+    }
+
+    // Waits for the first load; later a stale directory starts a background refresh and answers from cache
+    private void ensureLoaded() throws ExecutionException, InterruptedException {
+        CompletableFuture<Void> firstLoad = null;
+        synchronized (this) {
+            boolean stale = System.currentTimeMillis() - loadedAt > TTL_MS;
+            if (stale && refreshing == null) {
+                refreshing = CompletableFuture.runAsync(this::refresh, AppExecutors.io());
+                refreshing.whenComplete((ignored, error) -> {
+                    synchronized (this) {
+                        refreshing = null;
+                    }
+                    if (error != null) System.err.println("Error refreshing user directory: " + error.getMessage());
+                });
+            }
+            if (loadedAt == 0) {
+                firstLoad = refreshing;
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+        // A failed first load leaves loadedAt at 0, so the next call tries again
+        if (firstLoad != null) firstLoad.get();
+    }
+
+    private void refresh() {
+        long start = System.currentTimeMillis();
+        boolean full;
+        long since;
+        synchronized (this) {
+            full = loadedAt == 0 || start - fullyLoadedAt > FULL_RELOAD_MS;
+            since = full ? 0 : loadedAt - REFRESH_OVERLAP_MS;
+        }
+        try {
+            // Users put by this client while the read runs are not in it and must not be evicted
+            List<String> known = full ? new ArrayList<>(byUid.keySet()) : List.of();
+            Set<String> seen = new HashSet<>();
+            for (UserAccount user : Repositories.users().findProfiles(since)) {
+                put(user);
+                seen.add(user.getUid());
+            }
+            if (full) {
+                for (String uid : known) {
+                    if (!seen.contains(uid)) {
+                        byUid.remove(uid);
+                        index.remove(uid);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        synchronized (this) {
+            loadedAt = start;
+            if (full) fullyLoadedAt = start;
+            refreshes++;
+        }
+    }
+
+    private synchronized void count(int hitCount, int missCount) {
+        hits += hitCount;
+        misses += missCount;
+    }
+
+    private static UserAccount copy(UserAccount source) {
+        UserAccount copy = new UserAccount();
+        copy.setUid(source.getUid());
+        copy.setUsername(source.getUsername());
+        copy.setEmail(source.getEmail());
+        copy.setPassword(source.getPassword());
+        copy.setDisplayName(source.getDisplayName());
+        return copy;
+    }
+}
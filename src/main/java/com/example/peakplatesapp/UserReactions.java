@@ -0,0 +1,80 @@
+package com.example.peakplatesapp;
+
+import javafx.application.Platform;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Which recipes a user has liked and favorited. List summaries do not carry the
+ * likedByUsers/favoriteByUsers arrays, so toggles look up their direction here.
+ * Loaded once per user with id-only queries and kept in sync by {@link RecipeActions}.
+ */
+public final class UserReactions {
+    private static final Map<String, UserReactions> BY_USER = new ConcurrentHashMap<>();
+
+    private final Set<String> liked = ConcurrentHashMap.newKeySet();
+    private final Set<String> favorited = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+
+    private UserReactions() {
+    }
+
+    // Starts loading on first use
+    public static UserReactions of(String userId) {
+        UserReactions existing = BY_USER.get(userId);
+        if (existing != null) return existing;
+        UserReactions created = new UserReactions();
+        existing = BY_USER.putIfAbsent(userId, created);
+        if (existing != null) return existing;
+        // Started only once registered, so a load that fails at once can evict it from the map
+        created.load(userId);
+        return created;
+    }
+
+    private void load(String userId) {
+        AppExecutors.io().execute(() -> {
+            try {
+                liked.addAll(Repositories.recipes().findLikedIds(userId));
+                favorited.addAll(Repositories.recipes().findFavoritedIds(userId));
+                loaded.complete(null);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                // Let the next caller retry after a failed load
+                BY_USER.remove(userId, this);
+                loaded.completeExceptionally(e);
+            }
+        });
+    }
+
+    // Runs onReady (or onError) on the FX thread once the ids have loaded
+    public void whenLoaded(Runnable onReady, Consumer<Throwable> onError) {
+        loaded.whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                onReady.run();
+            }
+        }));
+    }
+
+    public boolean isLiked(String recipeId) {
+        return liked.contains(recipeId);
+    }
+
+    public boolean isFavorited(String recipeId) {
+        return favorited.contains(recipeId);
+    }
+
+    void setLiked(String recipeId, boolean value) {
+        if (value) liked.add(recipeId); else liked.remove(recipeId);
+    }
+
+    void setFavorited(String recipeId, boolean value) {
+        if (value) favorited.add(recipeId); else favorited.remove(recipeId);
+    }
+}
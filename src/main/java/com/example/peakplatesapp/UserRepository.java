@@ -0,0 +1,34 @@
+package com.example.peakplatesapp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage-agnostic access to the "users" collection.
+ */
+public interface UserRepository {
+
+    // Returns null when the user does not exist; the only read that fills goals and daily logs
+    UserAccount findById(String uid) throws ExecutionException, InterruptedException;
+
+    List<UserAccount> findAll() throws ExecutionException, InterruptedException;
+
+    // Missing users are skipped; the order of the input list is preserved
+    List<UserAccount> findByIds(List<String> uids) throws ExecutionException, InterruptedException;
+
+    // Users whose profile was saved after the given time (epoch millis; 0 for everyone) with their
+    // profile fields only (username, email, display name). Deleted users are only missing from a full (0) read
+    List<UserAccount> findProfiles(long changedAfterMillis) throws ExecutionException, InterruptedException;
+
+    // Returns null when no user is registered with this email
+    UserAccount findByEmail(String email) throws ExecutionException, InterruptedException;
+
+    // Profile fields only; goals and daily logs already stored are kept
+    void save(UserAccount user) throws ExecutionException, InterruptedException;
+
+    void saveGoals(String uid, Map<String, Object> goals) throws ExecutionException, InterruptedException;
+
+    // Replaces the consumed totals of one day, leaving the other days alone
+    void saveDailyLog(String uid, String date, Map<String, Object> totals) throws ExecutionException, InterruptedException;
+}
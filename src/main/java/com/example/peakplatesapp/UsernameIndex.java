@@ -0,0 +1,161 @@
+package com.example.peakplatesapp;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * In-memory username search over normalized usernames (lower case, accents stripped).
+ * Prefix matches come from a sorted map and, for queries of three or more characters, other
+ * matches from intersected trigram posting lists, so a search touches only candidate users.
+ * Filled and kept current by {@link UserDirectory}.
+ */
+public final class UsernameIndex {
+    public record Match(String uid, String username) {
+    }
+
+    // Growable sorted int array; ids only ever grow, so appends keep it sorted
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    // Entries by id; a renamed user gets a new id and the old entry is left as a tombstone
+    private final List<String> uids = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> normalized = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Integer> idByUid = new HashMap<>();
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> byName = new TreeMap<>();
+
+    UsernameIndex() {
+    }
+
+    // Adds or renames a user
+    public synchronized void put(String uid, String username) {
+        if (uid == null) return;
+        Integer existing = idByUid.get(uid);
+        if (existing != null) {
+            if (Objects.equals(usernames.get(existing), username)) return;
+            live.clear(existing);
+        }
+        if (username == null || username.isBlank()) {
+            idByUid.remove(uid);
+            return;
+        }
+
+        int id = uids.size();
+        String key = normalize(username);
+        uids.add(uid);
+        usernames.add(username);
+        normalized.add(key);
+        live.set(id);
+        idByUid.put(uid, id);
+
+        byName.computeIfAbsent(key, k -> new Postings()).add(id);
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            Postings postings = trigrams.computeIfAbsent(trigram(key, i), k -> new Postings());
+            // A trigram repeated within the name must not add the id twice
+            if (postings.size == 0 || postings.ids[postings.size - 1] != id) postings.add(id);
+        }
+    }
+
+    public synchronized void remove(String uid) {
+        put(uid, null);
+    }
+
+    public synchronized int size() {
+        return idByUid.size();
+    }
+
+    /**
+     * Users whose username contains the query: names starting with it first, alphabetically,
+     * then names containing it elsewhere. Matching is case and accent insensitive. Both phases
+     * walk their matches in order and stop as soon as limit results are found.
+     * @param excludeUid user to leave out (usually the current user), or null
+     */
+    public synchronized List<Match> search(String query, int limit, String excludeUid) {
+        String q = normalize(query);
+        List<Match> result = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) return result;
+
+        for (Postings postings : byName.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                if (add(result, postings.ids[i], excludeUid) && result.size() == limit) return result;
+            }
+        }
+        // Shorter queries only match as a prefix
+        if (q.length() < 3) return result;
+
+        for (int id : candidates(q)) {
+            String name = normalized.get(id);
+            if (!name.startsWith(q) && name.contains(q)
+                    && add(result, id, excludeUid) && result.size() == limit) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    // Ids containing every trigram of q, intersecting from the rarest list
+    private int[] candidates(String q) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings postings = trigrams.get(trigram(q, i));
+            if (postings == null) return new int[0];
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int size = result.length;
+        for (int l = 1; l < lists.size() && size > 0; l++) {
+            Postings other = lists.get(l);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                int id = result[i];
+                // Both lists are sorted; binary search skips ahead in the longer one
+                int found = Arrays.binarySearch(other.ids, j, other.size, id);
+                if (found >= 0) {
+                    result[kept++] = id;
+                    j = found + 1;
+                } else {
+                    j = -found - 1;
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private boolean add(List<Match> result, int id, String excludeUid) {
+        if (!live.get(id) || uids.get(id).equals(excludeUid)) return false;
+        result.add(new Match(uids.get(id), usernames.get(id)));
+        return true;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = Normalizer.normalize(text.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.peakplatesapp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-user write-behind buffer for like/favorite toggles. Clicks within COALESCE_WINDOW_MS are
+ * merged per (recipe, kind) so like → unlike → like ends up as one write, and a toggle that
+ * returns to where it started writes nothing. Pending changes are flushed together through
+ * {@link RecipeRepository#applyReactions} when the window ends and on exit.
+ */
+public final class WriteBehindQueue {
+    static final long COALESCE_WINDOW_MS = 1_500;
+    // Flushes a change may fail before its click is rolled back
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final Map<String, WriteBehindQueue> BY_USER = new ConcurrentHashMap<>();
+
+    private record Key(String recipeId, ReactionChange.Kind kind) {
+    }
+
+    private static final class Pending {
+        final boolean baseline;             // state before the first queued click
+        final Consumer<Exception> onFailed; // rollback of the first click restores the baseline
+        boolean member;
+        int attempts;                       // failed flushes so far
+
+        Pending(boolean baseline, boolean member, Consumer<Exception> onFailed) {
+            this.baseline = baseline;
+            this.member = member;
+            this.onFailed = onFailed;
+        }
+    }
+
+    private final String userId;
+    private final Supplier<RecipeRepository> recipes;
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object(); // flushes of one user apply in order
+    private ScheduledFuture<?> scheduledFlush;
+
+    // Metrics
+    private long enqueued;
+    private long coalesced;
+    private long written;
+    private long flushes;
+    private long failedFlushes;
+    private long totalFlushNanos;
+    private long maxFlushNanos;
+
+    // Package-private for tests; the app gets its queues from of()
+    WriteBehindQueue(String userId, Supplier<RecipeRepository> recipes) {
+        this.userId = userId;
+        this.recipes = recipes;
+    }
+
+    public static WriteBehindQueue of(String userId) {
+        return BY_USER.computeIfAbsent(userId, id -> new WriteBehindQueue(id, Repositories::recipes));
+    }
+
+    public static Collection<WriteBehindQueue> all() {
+        return BY_USER.values();
+    }
+
+    // Flushes every user's queue in the background; completes when all are written
+    public static CompletableFuture<Void> flushAll() {
+        List<CompletableFuture<Void>> flushes = new ArrayList<>();
+        for (WriteBehindQueue queue : BY_USER.values()) {
+            if (queue.depth() > 0) flushes.add(CompletableFuture.runAsync(queue::flush, AppExecutors.io()));
+        }
+        return CompletableFuture.allOf(flushes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Queues the user's new state for a recipe.
+     * @param baseline the state before this click, as the UI knew it
+     * @param onFailed called from a background thread if the flush carrying this change fails
+     */
+    public synchronized void enqueue(String recipeId, ReactionChange.Kind kind, boolean baseline, boolean member,
+                                     Consumer<Exception> onFailed) {
+        enqueued++;
+        Key key = new Key(recipeId, kind);
+        Pending existing = pending.get(key);
+        if (existing != null) {
+            coalesced++;
+            existing.member = member;
+            // Back where it started: nothing to write
+            if (existing.member == existing.baseline) pending.remove(key);
+        } else if (baseline != member) {
+            pending.put(key, new Pending(baseline, member, onFailed));
+        }
+
+        scheduleFlush();
+    }
+
+    private synchronized void scheduleFlush() {
+        if (!pending.isEmpty() && scheduledFlush == null) {
+            scheduledFlush = AppExecutors.scheduler().schedule(
+                    () -> AppExecutors.io().execute(this::flush), COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Writes everything pending now; blocks, so call it off the FX thread
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Key, Pending> batch;
+            synchronized (this) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (pending.isEmpty()) return;
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+
+            List<ReactionChange> changes = new ArrayList<>();
+            for (Map.Entry<Key, Pending> entry : batch.entrySet()) {
+                changes.add(new ReactionChange(entry.getKey().recipeId(), entry.getKey().kind(), entry.getValue().member));
+            }
+
+            Set<Key> settled = new HashSet<>();
+            long start = System.nanoTime();
+            try {
+                recipes.get().applyReactions(userId, changes, change -> {
+                    settled.add(new Key(change.recipeId(), change.kind()));
+                    RecipeDetailCache.invalidate(change.recipeId());
+                });
+                recordFlush(System.nanoTime() - start, settled.size(), false);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                recordFlush(System.nanoTime() - start, settled.size(), true);
+                System.err.println("Error writing " + (changes.size() - settled.size()) + " of "
+                        + changes.size() + " queued reactions: " + e.getMessage());
+                // Changes committed before the failure stay; only the rest are retried or rolled back
+                for (Map.Entry<Key, Pending> entry : batch.entrySet()) {
+                    if (!settled.contains(entry.getKey())) retryOrFail(entry.getKey(), entry.getValue(), e);
+                }
+            }
+        }
+    }
+
+    // Puts an unwritten change back in the queue, or rolls its click back after MAX_ATTEMPTS
+    private void retryOrFail(Key key, Pending failed, Exception error) {
+        boolean retry = ++failed.attempts < MAX_ATTEMPTS;
+        synchronized (this) {
+            Pending newer = pending.get(key);
+            Pending merged = failed;
+            if (newer != null) {
+                // Clicked again while flushing: the failed write never happened, so the merged
+                // change starts from the failed one's baseline and keeps its rollback
+                merged = new Pending(failed.baseline, newer.member, failed.onFailed);
+                merged.attempts = failed.attempts;
+            }
+            if (merged.member == merged.baseline) {
+                // The later clicks undid this one; the row already shows what the server has
+                pending.remove(key);
+                return;
+            }
+            if (retry) {
+                pending.put(key, merged);
+                scheduleFlush();
+                return;
+            }
+            pending.remove(key);
+        }
+        // Only reached without later clicks: with a boolean state, a newer click always nets back to the baseline
+        failed.onFailed.accept(error);
+    }
+
+    // Changes waiting for the next flush
+    public synchronized int depth() {
+        return pending.size();
+    }
+
+    public synchronized double averageFlushMillis() {
+        return flushes == 0 ? 0 : totalFlushNanos / 1e6 / flushes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("WriteBehindQueue[%s: depth=%d, clicks=%d, coalesced=%d, written=%d, flushes=%d, failed=%d, avg=%.1f ms, max=%.1f ms]",
+                userId, pending.size(), enqueued, coalesced, written, flushes, failedFlushes,
+                averageFlushMillis(), maxFlushNanos / 1e6);
+    }
+
+    private synchronized void recordFlush(long nanos, int changes, boolean failed) {
+        flushes++;
+        if (failed) failedFlushes++;
+        written += changes;
+        totalFlushNanos += nanos;
+        maxFlushNanos = Math.max(maxFlushNanos, nanos);
+    }
+}
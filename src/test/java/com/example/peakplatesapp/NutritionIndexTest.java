@@ -0,0 +1,100 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NutritionIndexTest {
+    private final RecipeSummary salad = recipe("salad", 250, 8, 20, 15);
+    private final RecipeSummary chicken = recipe("chicken", 480, 45, 30, 18);
+    private final RecipeSummary pasta = recipe("pasta", 700, 22, 95, 20);
+    private final RecipeSummary shake = recipe("shake", 320, 40, 25, 5);
+    private final RecipeSummary unknown = recipe("unknown", 0, 0, 0, 0);
+    private final List<RecipeSummary> all = List.of(salad, chicken, pasta, shake, unknown);
+
+    private NutritionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NutritionIndex();
+        index.addAll(all);
+    }
+
+    @Test
+    void parseSplitsMacroTermsFromText() {
+        NutritionIndex.Query query = NutritionIndex.parse("  Chicken cal<=500 PROTEIN>30 fat=18 carbs~40 bowl ");
+
+        assertEquals("Chicken bowl", query.text());
+        assertEquals(500, query.max()[NutritionIndex.CALORIES]);
+        assertEquals(31, query.min()[NutritionIndex.PROTEIN]);
+        assertEquals(18, query.min()[NutritionIndex.FATS]);
+        assertEquals(18, query.max()[NutritionIndex.FATS]);
+        assertArrayEquals(new int[]{-1, -1, 40, -1}, query.target());
+        assertTrue(query.hasRanges());
+        assertTrue(query.hasTarget());
+    }
+
+    @Test
+    void parseKeepsOrdinaryWordsAsText() {
+        NutritionIndex.Query query = NutritionIndex.parse("calzone protein bars");
+
+        assertEquals("calzone protein bars", query.text());
+        assertFalse(query.hasRanges());
+        assertFalse(query.hasTarget());
+    }
+
+    @Test
+    void rangeAppliesEveryBoundInclusively() {
+        assertEquals(List.of(chicken, shake), index.select(all, NutritionIndex.parse("cal<=480 protein>=40")));
+        assertEquals(List.of(shake), index.select(all, NutritionIndex.parse("cal<480 protein>=40")));
+        assertEquals(List.of(pasta), index.select(all, NutritionIndex.parse("carbs>90")));
+    }
+
+    @Test
+    void rangeLeavesOutRecipesWithoutNutritionData() {
+        assertEquals(List.of(salad, shake), index.select(all, NutritionIndex.parse("cal<=400")));
+        assertEquals(4, index.range(NutritionIndex.parse("bowl")).cardinality());
+    }
+
+    @Test
+    void rangeSeesRecipesAddedOrChangedAfterAQuery() {
+        assertEquals(List.of(), index.select(all, NutritionIndex.parse("protein>=60")));
+
+        RecipeSummary updated = recipe("salad", 250, 65, 20, 15);
+        index.add(updated);
+
+        assertEquals(List.of(updated), index.select(List.of(updated, chicken), NutritionIndex.parse("protein>=60")));
+    }
+
+    @Test
+    void nearestOrdersByKcalWeightedDistance() {
+        // 1 g of fat off weighs 9 kcal, 1 g of protein 4 kcal, so pasta (20 g protein, 14 g fat off) beats salad (34, 9)
+        List<RecipeSummary> result = index.nearest(all, NutritionIndex.parse("protein~42 fat~6"));
+
+        assertEquals(List.of(shake, chicken, pasta, salad), result);
+    }
+
+    @Test
+    void clearEmptiesTheIndex() {
+        index.clear();
+
+        assertEquals(0, index.range(NutritionIndex.parse("cal<=1000")).cardinality());
+        assertEquals(List.of(), index.nearest(all, NutritionIndex.parse("cal~500")));
+    }
+
+    private static RecipeSummary recipe(String id, int calories, int protein, int carbs, int fats) {
+        RecipeSummary recipe = new RecipeSummary();
+        recipe.setId(id);
+        recipe.setCalories(calories);
+        recipe.setProtein(protein);
+        recipe.setCarbs(carbs);
+        recipe.setFats(fats);
+        return recipe;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeBatchLoaderTest {
+
+    // Returns a summary per id; the first chunk is held back until the last one has been fetched
+    private static final class SlowFirstChunkRepository extends InMemoryRecipeRepository {
+        final List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch lastChunkFetched = new CountDownLatch(1);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        String firstId;
+        String lastId;
+        Set<String> failing = Set.of();
+
+        @Override
+        public List<RecipeSummary> findSummariesByIds(List<String> ids) {
+            requests.add(List.copyOf(ids));
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (ids.contains(firstId)) {
+                    assertTrue(lastChunkFetched.await(5, TimeUnit.SECONDS), "last chunk never fetched");
+                }
+                if (ids.contains(lastId)) lastChunkFetched.countDown();
+                if (!Collections.disjoint(ids, failing)) throw new IllegalStateException("unavailable");
+
+                List<RecipeSummary> result = new ArrayList<>();
+                for (String id : ids) {
+                    RecipeSummary summary = new RecipeSummary();
+                    summary.setId(id);
+                    result.add(summary);
+                }
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private final SlowFirstChunkRepository repository = new SlowFirstChunkRepository();
+
+    @Test
+    void chunksAreDeliveredInInputOrderEvenWhenTheyArriveOutOfOrder() throws Exception {
+        repository.firstId = "r1";
+        repository.lastId = "r7";
+        List<List<String>> delivered = new ArrayList<>();
+
+        new RecipeBatchLoader(repository, 2, 4)
+                .load(List.of("r1", "r2", "r3", "r4", "r5", "r6", "r7"), chunk -> delivered.add(ids(chunk)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(List.of("r1", "r2"), List.of("r3", "r4"), List.of("r5", "r6"), List.of("r7")), delivered);
+    }
+
+    @Test
+    void duplicateIdsAreFetchedOnce() throws Exception {
+        List<String> delivered = new ArrayList<>();
+
+        new RecipeBatchLoader(repository, 2, 1)
+                .load(List.of("r1", "r2", "r1", "r3", "r2"), chunk -> delivered.addAll(ids(chunk)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("r1", "r2", "r3"), delivered);
+        assertEquals(List.of(List.of("r1", "r2"), List.of("r3")), repository.requests);
+    }
+
+    @Test
+    void requestsInFlightAreCapped() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) ids.add("r" + i);
+
+        new RecipeBatchLoader(repository, 1, 3).load(ids, chunk -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(40, repository.requests.size());
+        assertTrue(repository.maxInFlight.get() <= 3, "max in flight " + repository.maxInFlight.get());
+    }
+
+    @Test
+    void failedChunksAreDeliveredEmptyInTheirPlace() throws Exception {
+        repository.failing = Set.of("r3");
+        List<List<String>> delivered = new ArrayList<>();
+
+        new RecipeBatchLoader(repository, 2, 2)
+                .load(List.of("r1", "r2", "r3", "r4", "r5"), chunk -> delivered.add(ids(chunk)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(List.of("r1", "r2"), List.of(), List.of("r5")), delivered);
+    }
+
+    @Test
+    void noIdsCompletesWithoutDelivering() throws Exception {
+        List<List<String>> delivered = new ArrayList<>();
+
+        new RecipeBatchLoader(repository).load(List.of(), chunk -> delivered.add(ids(chunk))).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(), delivered);
+        assertEquals(List.of(), repository.requests);
+    }
+
+    private static List<String> ids(List<RecipeSummary> chunk) {
+        List<String> ids = new ArrayList<>();
+        for (RecipeSummary summary : chunk) {
+            ids.add(summary.getId());
+        }
+        return ids;
+    }
+}
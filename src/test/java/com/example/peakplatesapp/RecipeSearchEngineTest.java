@@ -0,0 +1,112 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeSearchEngineTest {
+    private RecipeSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RecipeSearchEngine();
+    }
+
+    @Test
+    void matchesEveryPrefixOfAWordAsItIsTyped() {
+        engine.add(recipe("r1", "Baking bread", "anna"));
+
+        for (String typed : List.of("b", "ba", "bak", "baki", "bakin", "baking")) {
+            assertEquals(List.of("r1"), engine.search(typed, 10), typed);
+        }
+    }
+
+    @Test
+    void prefixMatchesWordsWhoseStemIsShorter() {
+        engine.add(recipe("r1", "Fresh berries", "anna"));
+        engine.add(recipe("r2", "Chopped onions", "ben"));
+
+        assertEquals(List.of("r1"), engine.search("berri", 10));
+        assertEquals(List.of("r2"), engine.search("choppe", 10));
+    }
+
+    @Test
+    void stemsJoinWordFormsForCompleteTerms() {
+        engine.add(recipe("r1", "Baked potatoes", "anna"));
+
+        assertEquals(List.of("r1"), engine.search("baking potato ", 10));
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        engine.add(recipe("r1", "Spicy chicken curry", "anna"));
+        engine.add(recipe("r2", "Chicken soup", "ben"));
+
+        assertEquals(List.of("r1"), engine.search("chicken spicy", 10));
+        assertTrue(engine.search("chicken lasagna ", 10).isEmpty());
+    }
+
+    @Test
+    void ranksTitleMatchesAboveIngredientMatches() {
+        engine.add(recipe("r1", "Weeknight pasta", "anna"));
+        engine.add(recipe("r2", "Garlic bread", "ben"));
+        engine.updateText("r1", "garlic, olive oil, spaghetti", "Boil the pasta.");
+
+        assertEquals(List.of("r2", "r1"), engine.search("garlic", 10));
+    }
+
+    @Test
+    void searchesTextAddedLater() {
+        engine.add(recipe("r1", "Weeknight pasta", "anna"));
+        assertTrue(engine.search("simmer ", 10).isEmpty());
+
+        engine.updateText("r1", "tomatoes", "Simmer the sauce.");
+
+        assertEquals(List.of("r1"), engine.search("simmering ", 10));
+    }
+
+    @Test
+    void changedRecipeNoLongerMatchesItsOldTitle() {
+        engine.add(recipe("r1", "Lemon cake", "anna"));
+        engine.add(recipe("r1", "Orange cake", "anna"));
+
+        assertTrue(engine.search("lemon ", 10).isEmpty());
+        assertEquals(List.of("r1"), engine.search("orange", 10));
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    void returnsAtMostLimitResults() {
+        for (int i = 0; i < 30; i++) {
+            engine.add(recipe("r" + i, "Tomato soup " + i, "anna"));
+        }
+
+        assertEquals(5, engine.search("tomato", 5).size());
+    }
+
+    @Test
+    void filtersToTheGivenRecipesInRankOrder() {
+        RecipeSummary soup = recipe("r1", "Tomato soup", "anna");
+        RecipeSummary salad = recipe("r2", "Tomato salad with tomato dressing", "ben");
+        RecipeSummary bread = recipe("r3", "Bread", "cara");
+        for (RecipeSummary recipe : List.of(soup, salad, bread)) {
+            engine.add(recipe);
+        }
+
+        List<RecipeSummary> result = engine.search("tomato", List.of(soup, bread));
+
+        assertEquals(List.of(soup), result);
+    }
+
+    private static RecipeSummary recipe(String id, String title, String username) {
+        RecipeSummary recipe = new RecipeSummary();
+        recipe.setId(id);
+        recipe.setTitle(title);
+        recipe.setUsername(username);
+        return recipe;
+    }
+}
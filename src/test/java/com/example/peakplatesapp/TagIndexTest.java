@@ -0,0 +1,104 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TagIndexTest {
+    private final RecipeSummary oats = recipe("oats", "Breakfast", "Vegan");
+    private final RecipeSummary omelette = recipe("omelette", "Breakfast", "High Protein");
+    private final RecipeSummary curry = recipe("curry", "Dinner", "Vegan", "High Protein");
+    private final RecipeSummary plain = recipe("plain");
+    private final List<RecipeSummary> all = List.of(oats, omelette, curry, plain);
+
+    private TagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagIndex();
+        index.addAll(all);
+    }
+
+    @Test
+    void selectMatchesAnyOrEveryTag() {
+        assertEquals(List.of(oats, omelette, curry), index.select(all, List.of("Breakfast", "Vegan"), false));
+        assertEquals(List.of(oats), index.select(all, List.of("Breakfast", "Vegan"), true));
+        assertEquals(all, index.select(all, List.of(), true));
+    }
+
+    @Test
+    void filterAgreesWithSelect() {
+        assertEquals(positions(0, 1, 2), index.filter(List.of("Breakfast", "Vegan"), false));
+        assertEquals(positions(2), index.filter(List.of("Vegan", "High Protein"), true));
+        assertEquals(positions(), index.filter(List.of("Vegan", "No Such Tag"), true));
+        assertEquals(positions(0, 1, 2, 3), index.filter(List.of(), false));
+    }
+
+    @Test
+    void tagsPastTheMaskAreFilteredThroughBitmaps() {
+        // Intern enough tags that the next one lands past bit 63
+        for (int i = 0; i < Long.SIZE; i++) {
+            Tags.ordinal("TagIndexTest filler " + i);
+        }
+        RecipeSummary rare = recipe("rare", "TagIndexTest rare", "Vegan");
+        index.add(rare);
+        List<RecipeSummary> recipes = List.of(oats, curry, rare);
+
+        assertEquals(List.of(rare), index.select(recipes, List.of("TagIndexTest rare"), false));
+        assertEquals(List.of(rare), index.select(recipes, List.of("TagIndexTest rare", "Vegan"), true));
+        assertEquals(recipes, index.select(recipes, List.of("TagIndexTest rare", "Vegan"), false));
+    }
+
+    @Test
+    void addingAgainReplacesTags() {
+        index.add(recipe("oats", "Snack"));
+
+        assertEquals(List.of(curry), index.select(all, List.of("Vegan"), false));
+        assertEquals(List.of(oats), index.select(all, List.of("Snack"), false));
+    }
+
+    @Test
+    void removedRecipesNoLongerMatch() {
+        index.remove("curry");
+
+        assertEquals(List.of(oats), index.select(all, List.of("Vegan"), false));
+        assertEquals(positions(), index.filter(List.of("Dinner"), false));
+    }
+
+    @Test
+    void facetCountsOnlyCountTheGivenRecipes() {
+        assertEquals(Map.of("Breakfast", 2, "Vegan", 2, "High Protein", 2, "Dinner", 1),
+                index.facetCounts(index.all()));
+        assertEquals(Map.of("Breakfast", 1, "Vegan", 1),
+                index.facetCounts(index.positionsOf(List.of(oats, plain))));
+    }
+
+    @Test
+    void clearForgetsEveryRecipe() {
+        index.clear();
+
+        assertEquals(List.of(), index.select(all, List.of("Vegan"), false));
+        assertEquals(Map.of(), index.facetCounts(index.all()));
+    }
+
+    private static RecipeSummary recipe(String id, String... tags) {
+        RecipeSummary recipe = new RecipeSummary();
+        recipe.setId(id);
+        recipe.setTags(new ArrayList<>(List.of(tags)));
+        return recipe;
+    }
+
+    private static BitSet positions(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
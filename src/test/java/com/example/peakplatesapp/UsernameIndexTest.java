@@ -0,0 +1,93 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UsernameIndexTest {
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UsernameIndex();
+        index.put("u1", "Zoe");
+        index.put("u2", "Chloé");
+        index.put("u3", "chef_anna");
+        index.put("u4", "annabel");
+        index.put("u5", "hannah");
+    }
+
+    @Test
+    void prefixMatchesComeFirstThenInfixMatches() {
+        assertEquals(List.of("annabel", "chef_anna", "hannah"), names(index.search("ann", 10, null)));
+    }
+
+    @Test
+    void shortQueriesOnlyMatchAsPrefix() {
+        assertEquals(List.of("annabel"), names(index.search("an", 10, null)));
+    }
+
+    @Test
+    void matchingIgnoresCaseAndAccents() {
+        assertEquals(List.of("Chloé"), names(index.search("CHLOE", 10, null)));
+        assertEquals(List.of("Chloé"), names(index.search("loé", 10, null)));
+    }
+
+    @Test
+    void everyTrigramOfTheQueryMustMatch() {
+        // "nna" and "nah" both occur in chef_anna, but not as one run
+        assertEquals(List.of("hannah"), names(index.search("nnah", 10, null)));
+    }
+
+    @Test
+    void excludedUserIsLeftOut() {
+        assertEquals(List.of("annabel", "hannah"), names(index.search("ann", 10, "u3")));
+    }
+
+    @Test
+    void searchStopsAtTheLimit() {
+        assertEquals(List.of("annabel", "chef_anna"), names(index.search("ann", 2, null)));
+    }
+
+    @Test
+    void renamedUsersAreFoundUnderTheNewNameOnly() {
+        index.put("u4", "bella");
+
+        assertEquals(List.of("chef_anna", "hannah"), names(index.search("ann", 10, null)));
+        assertEquals(List.of("bella"), names(index.search("bel", 10, null)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void removedUsersAreNotFound() {
+        index.remove("u5");
+
+        assertEquals(List.of("annabel", "chef_anna"), names(index.search("ann", 10, null)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void repeatedTrigramsDoNotDuplicateResults() {
+        index.put("u6", "nanana");
+
+        assertEquals(List.of("nanana"), names(index.search("ana", 10, null)));
+        assertEquals(List.of("nanana"), names(index.search("nan", 10, null)));
+    }
+
+    @Test
+    void blankQueriesMatchNothing() {
+        assertEquals(List.of(), index.search("  ", 10, null));
+    }
+
+    private static List<String> names(List<UsernameIndex.Match> matches) {
+        List<String> names = new ArrayList<>();
+        for (UsernameIndex.Match match : matches) {
+            names.add(match.username());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.peakplatesapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriteBehindQueueTest {
+    private static final ReactionChange.Kind LIKE = ReactionChange.Kind.LIKE;
+
+    // Records what each flush writes; the next `failures` flushes settle the first `settle` changes and then throw
+    private static final class ScriptedRepository extends InMemoryRecipeRepository {
+        final List<List<ReactionChange>> flushes = new ArrayList<>();
+        int failures;
+        int settle;
+        Runnable duringFlush = () -> {
+        };
+
+        @Override
+        public int applyReactions(String userId, List<ReactionChange> changes, Consumer<ReactionChange> onSettled) {
+            flushes.add(changes);
+            duringFlush.run();
+            if (failures == 0) {
+                changes.forEach(onSettled);
+                return changes.size();
+            }
+            failures--;
+            for (int i = 0; i < Math.min(settle, changes.size()); i++) {
+                onSettled.accept(changes.get(i));
+            }
+            throw new IllegalStateException("unavailable");
+        }
+    }
+
+    private ScriptedRepository repository;
+    private WriteBehindQueue queue;
+    private AtomicInteger rollbacks;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ScriptedRepository();
+        queue = new WriteBehindQueue("user", () -> repository);
+        rollbacks = new AtomicInteger();
+    }
+
+    @Test
+    void coalescesClicksOnTheSameRecipeIntoOneWrite() {
+        click("r1", false, true);
+        click("r1", true, false);
+        click("r1", false, true);
+        click("r2", false, true);
+
+        assertEquals(2, queue.depth());
+        queue.flush();
+
+        assertEquals(List.of(List.of(new ReactionChange("r1", LIKE, true), new ReactionChange("r2", LIKE, true))),
+                repository.flushes);
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void toggleBackToTheStartWritesNothing() {
+        click("r1", false, true);
+        click("r1", true, false);
+
+        assertEquals(0, queue.depth());
+        queue.flush();
+
+        assertEquals(List.of(), repository.flushes);
+    }
+
+    @Test
+    void failedChangeIsRetriedWithoutRollback() {
+        repository.failures = 1;
+        click("r1", false, true);
+
+        queue.flush();
+        assertEquals(1, queue.depth());
+        queue.flush();
+
+        assertEquals(0, queue.depth());
+        assertEquals(0, rollbacks.get());
+        assertEquals(2, repository.flushes.size());
+    }
+
+    @Test
+    void onlyUnsettledChangesAreRetried() {
+        repository.failures = 1;
+        repository.settle = 1;
+        click("r1", false, true);
+        click("r2", false, true);
+
+        queue.flush();
+        queue.flush();
+
+        assertEquals(List.of(new ReactionChange("r2", LIKE, true)), repository.flushes.get(1));
+    }
+
+    @Test
+    void rolledBackOnceAfterTheLastAttempt() {
+        repository.failures = WriteBehindQueue.MAX_ATTEMPTS;
+        click("r1", false, true);
+
+        for (int i = 0; i < WriteBehindQueue.MAX_ATTEMPTS; i++) {
+            queue.flush();
+        }
+
+        assertEquals(1, rollbacks.get());
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void clickDuringTheLastFailedFlushThatUndoesTheChangeNeedsNoRollback() {
+        repository.failures = WriteBehindQueue.MAX_ATTEMPTS;
+        click("r1", false, true);
+        for (int i = 1; i < WriteBehindQueue.MAX_ATTEMPTS; i++) {
+            queue.flush();
+        }
+
+        // Unlike while the last attempt is in flight: the row is back at the server's state
+        repository.duringFlush = () -> click("r1", true, false);
+        queue.flush();
+
+        assertEquals(0, rollbacks.get());
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void clickDuringARetriedFlushIsMergedFromTheFailedBaseline() {
+        repository.failures = 1;
+        click("r1", false, true);
+        repository.duringFlush = () -> click("r1", true, false);
+
+        queue.flush();
+
+        // like then unlike from an unliked start: nothing left to write
+        assertEquals(0, queue.depth());
+        assertEquals(0, rollbacks.get());
+    }
+
+    private void click(String recipeId, boolean baseline, boolean member) {
+        queue.enqueue(recipeId, LIKE, baseline, member, e -> rollbacks.incrementAndGet());
+    }
+}